@@ -0,0 +1,64 @@
+package com.example.namecollection.config;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Authority conversion run for every authenticated request, using claim sets shaped like the
+ * access tokens Auth0 issues for each role
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationConverterBenchmark {
+
+    @Param({"viewer", "editor", "admin"})
+    private String role;
+
+    private CustomJwtAuthenticationConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        converter = new CustomJwtAuthenticationConverter();
+        jwt = Jwt.withTokenValue("token").header("alg", "RS256").header("typ", "JWT")
+                .header("kid", "k1").issuer("https://dev-example.us.auth0.com/")
+                .subject("auth0|64b7f0c2a1b2c3d4e5f60718")
+                .audience(List.of("https://name-collection-api",
+                        "https://dev-example.us.auth0.com/userinfo"))
+                .issuedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(86_400))
+                .claim("azp", "y3Kx0abcDEFghiJKLmnoPQRstuVWxyz1")
+                .claim("scope", "openid profile email")
+                .claim("permissions", permissionsFor(role))
+                .claim("https://name-collection-app/roles", List.of(capitalize(role))).build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+
+    static List<String> permissionsFor(String role) {
+        return switch (role) {
+            case "viewer" -> List.of("read:names");
+            case "editor" -> List.of("read:names", "create:names", "update:names");
+            default -> List.of("read:names", "create:names", "update:names", "delete:names");
+        };
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+}
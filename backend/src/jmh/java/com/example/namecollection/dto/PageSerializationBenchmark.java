@@ -0,0 +1,108 @@
+package com.example.namecollection.dto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.namecollection.protobuf.NameProtobuf;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+/**
+ * Encoding and decoding a search response page in each representation NameController offers,
+ * with the mappers configured as in WebConfig. The payload size of each is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private PageDTO<NameResponseDTO> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor()
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile()
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        writer = mapper.writer();
+        reader = mapper.readerFor(new TypeReference<PageDTO<NameResponseDTO>>() {
+        });
+
+        List<NameResponseDTO> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            NameResponseDTO name = new NameResponseDTO();
+            name.setUuid(UUID.randomUUID().toString());
+            name.setFirstName("First" + i);
+            name.setLastName("Last" + i);
+            name.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+            name.setUpdatedAt(name.getCreatedAt());
+            content.add(name);
+        }
+
+        page = new PageDTO<>();
+        page.setContent(content);
+        page.setPageNumber(3);
+        page.setPageSize(pageSize);
+        page.setTotalElements(100_000);
+        page.setTotalPages(100_000 / pageSize);
+        page.setFirst(false);
+        page.setLast(false);
+        page.setTotalMode("exact");
+
+        encoded = serialize();
+        System.out.printf("%n%s page of %d names: %,d bytes%n", format, pageSize,
+                encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if ("protobuf".equals(format)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+            NameProtobuf.writePage(out, page);
+            out.flush();
+            return bytes.toByteArray();
+        }
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageDTO<NameResponseDTO> deserialize() throws IOException {
+        if ("protobuf".equals(format)) {
+            return NameProtobuf.readPage(CodedInputStream.newInstance(encoded));
+        }
+        return reader.readValue(encoded);
+    }
+}
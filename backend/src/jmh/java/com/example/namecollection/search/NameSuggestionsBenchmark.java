@@ -0,0 +1,98 @@
+package com.example.namecollection.search;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.namecollection.dto.NameSuggestionDTO;
+
+/**
+ * Top-k suggestion lookups over the counts of a generated name table, sampled so JMH reports
+ * percentiles (p99 included), and the cost of building a snapshot to swap in. Setup prints the
+ * distinct values and the heap the snapshot holds per million names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameSuggestionsBenchmark {
+    private static final String[] SYLLABLES = {"an", "ba", "ca", "da", "el", "fi", "ga", "ha",
+        "is", "jo", "ka", "li", "ma", "no", "ol", "pa", "ri", "sa", "ta", "ul", "vi", "wa", "yo",
+        "ze"};
+
+    @Param({"100000", "1000000"})
+    private int names;
+
+    @Param({"10"})
+    private int limit;
+
+    private Map<String, Integer> counts;
+    private NameSuggestions suggestions;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        counts = new HashMap<>();
+        for (int i = 0; i < names; i++) {
+            // Skewed like real names: a few are very common, most are rare
+            counts.merge(name(random, 2_000), 1, Integer::sum);
+            counts.merge(name(random, 200_000), 1, Integer::sum);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        suggestions = NameSuggestions.build(counts);
+        System.gc();
+        long retained = runtime.totalMemory() - runtime.freeMemory() - before;
+        double perMillion = 1_000_000.0 / names;
+        System.out.printf("%n%,d names, %,d distinct values: %,.1f MB estimated, %,.1f MB "
+                + "measured per million names%n", names, suggestions.size(),
+                suggestions.estimatedBytes() * perMillion / 1e6, retained * perMillion / 1e6);
+
+        // One to three letters, as typed into a search box
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = name(random, 200_000);
+            prefixes[i] = name.substring(0, 1 + random.nextInt(Math.min(3, name.length())));
+        }
+    }
+
+    @Benchmark
+    public List<NameSuggestionDTO> suggest() {
+        next = (next + 1) & (prefixes.length - 1);
+        return suggestions.top(prefixes[next], limit);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public NameSuggestions build() {
+        return NameSuggestions.build(counts);
+    }
+
+    private static String name(Random random, int vocabulary) {
+        // Squaring a uniform draw favours low ranks
+        double draw = random.nextDouble();
+        int rank = (int) (draw * draw * vocabulary);
+        StringBuilder name = new StringBuilder();
+        do {
+            name.append(SYLLABLES[rank % SYLLABLES.length]);
+            rank /= SYLLABLES.length;
+        } while (rank > 0);
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
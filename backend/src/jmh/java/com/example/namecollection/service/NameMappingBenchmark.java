@@ -0,0 +1,65 @@
+package com.example.namecollection.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.dto.PageDTO;
+import com.example.namecollection.model.Name;
+
+/**
+ * Entity to DTO mapping on the write paths, and wrapping a projected page into the response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private NameService nameService;
+    private Name name;
+    private Page<NameResponseDTO> page;
+
+    @Setup
+    public void setUp() {
+        // Mapping doesn't touch any collaborators
+        nameService = new NameService(null, null, null, null);
+
+        List<NameResponseDTO> names = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            LocalDateTime createdAt = LocalDateTime.now().minusMinutes(i);
+            names.add(new NameResponseDTO(UUID.randomUUID().toString(), "First" + i, "Last" + i,
+                    createdAt, createdAt));
+        }
+        name = new Name(1L, UUID.randomUUID().toString(), "First", "Last", LocalDateTime.now(),
+                LocalDateTime.now());
+        page = new PageImpl<>(names, PageRequest.of(3, pageSize), 100_000);
+    }
+
+    @Benchmark
+    public NameResponseDTO convertToDTO() {
+        return nameService.convertToDTO(name);
+    }
+
+    @Benchmark
+    public PageDTO<NameResponseDTO> convertToPageDTO() {
+        return nameService.convertToPageDTO(page);
+    }
+}
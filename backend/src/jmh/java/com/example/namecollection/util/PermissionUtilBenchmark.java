@@ -0,0 +1,69 @@
+package com.example.namecollection.util;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.example.namecollection.config.CustomJwtAuthenticationConverter;
+
+/**
+ * Permission checks made by the controllers on every request, against an admin's
+ * authentication. The state is per thread because the security context is thread-local.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PermissionUtilBenchmark {
+
+    private PermissionUtil permissionUtil;
+
+    @Setup
+    public void setUp() {
+        permissionUtil = new PermissionUtil();
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256")
+                .subject("auth0|64b7f0c2a1b2c3d4e5f60718").issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(86_400)).claim("scope", "openid profile email")
+                .claim("permissions",
+                        List.of("read:names", "create:names", "update:names", "delete:names"))
+                .claim("https://name-collection-app/roles", List.of("Admin")).build();
+        SecurityContextHolder.getContext()
+                .setAuthentication(new CustomJwtAuthenticationConverter().convert(jwt));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public boolean hasPermission() {
+        return permissionUtil.hasPermission("delete:names");
+    }
+
+    @Benchmark
+    public boolean hasAnyPermission() {
+        return permissionUtil.hasAnyPermission("update:names", "delete:names");
+    }
+
+    @Benchmark
+    public boolean hasAllPermissions() {
+        return permissionUtil.hasAllPermissions("read:names", "create:names", "update:names");
+    }
+
+    @Benchmark
+    public Collection<String> getUserPermissions() {
+        return permissionUtil.getUserPermissions();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.namecollection.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.event.NamesImportedEvent;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Keeps the name caches consistent with writes and reports their statistics.
+ *
+ * <p>
+ * A change evicts the name's entry by uuid plus only the search pages it can affect: pages for
+ * every search term the name matched before or after the change, and unfiltered pages. Other
+ * nodes' writes are not seen here, so the configured TTLs bound how stale a cached read can be.
+ */
+@Component
+public class NameCaches {
+    public static final String NAMES_BY_UUID = "namesByUuid";
+    public static final String NAME_PAGES = "namePages";
+
+    private final CacheManager cacheManager;
+
+    public NameCaches(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNameChanged(NameChangedEvent event) {
+        Cache namesByUuid = cacheManager.getCache(NAMES_BY_UUID);
+        if (namesByUuid != null) {
+            namesByUuid.evict(event.uuid());
+        }
+
+        if (cacheManager.getCache(NAME_PAGES) instanceof CaffeineCache pages) {
+            pages.getNativeCache().asMap().keySet()
+                    .removeIf(key -> !(key instanceof NamePageKey pageKey)
+                            || pageKey.couldContain(event.firstName(), event.lastName())
+                            || pageKey.couldContain(event.previousFirstName(),
+                                    event.previousLastName()));
+        }
+    }
+
+    // An import can touch any page, so everything is dropped rather than matched change by change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNamesImported(NamesImportedEvent event) {
+        for (String cacheName : new String[] { NAMES_BY_UUID, NAME_PAGES }) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * Hit, miss and eviction statistics for every Caffeine-backed cache
+     */
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(cacheName) instanceof CaffeineCache cache) {
+                CacheStats cacheStats = cache.getNativeCache().stats();
+                Map<String, Object> cacheEntry = new LinkedHashMap<>();
+                cacheEntry.put("size", cache.getNativeCache().estimatedSize());
+                cacheEntry.put("hitCount", cacheStats.hitCount());
+                cacheEntry.put("missCount", cacheStats.missCount());
+                cacheEntry.put("hitRate", cacheStats.hitRate());
+                cacheEntry.put("evictionCount", cacheStats.evictionCount());
+                stats.put(cacheName, cacheEntry);
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.namecollection.cache;
+
+import java.util.Locale;
+
+import com.example.namecollection.dto.NameSearchCriteriaDTO;
+import com.example.namecollection.search.NameSearchMode;
+import com.example.namecollection.service.NameService;
+
+/**
+ * Cache key for a page of search results. Criteria that produce the same page map to the same
+ * key: the search term is normalized as {@link NameService} searches with it, and the sort
+ * direction, total mode and search mode are normalised.
+ */
+public record NamePageKey(String searchTerm, String sortBy, String sortDirection, int page,
+        int size, String totalMode, String mode) {
+
+    public static NamePageKey of(NameSearchCriteriaDTO criteria) {
+        String searchTerm = NameService.normalizeSearchTerm(criteria.getSearchTerm());
+        String sortDirection = "DESC".equalsIgnoreCase(criteria.getSortDirection()) ? "DESC" : "ASC";
+        String totalMode = criteria.getTotalMode() == null ? "exact"
+                : criteria.getTotalMode().toLowerCase(Locale.ROOT);
+        return new NamePageKey(searchTerm, criteria.getSortBy(), sortDirection, criteria.getPage(),
+                criteria.getSize(), totalMode, NameSearchMode.from(criteria.getMode()).value());
+    }
+
+    /**
+     * Whether a name could appear on (or shift the contents of) this page
+     */
+    public boolean couldContain(String firstName, String lastName) {
+        // Sounding alike can't be told from the strings cheaply, so such pages always could
+        return searchTerm.isEmpty() || !NameSearchMode.CONTAINS.value().equals(mode)
+                || contains(firstName) || contains(lastName);
+    }
+
+    private boolean contains(String value) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(searchTerm);
+    }
+}
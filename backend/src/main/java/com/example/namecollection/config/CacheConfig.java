@@ -0,0 +1,40 @@
+package com.example.namecollection.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.namecollection.cache.NameCaches;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${names.cache.enabled:true}") boolean enabled,
+            @Value("${names.cache.by-uuid.ttl:60s}") Duration byUuidTtl,
+            @Value("${names.cache.by-uuid.maximum-size:10000}") long byUuidMaximumSize,
+            @Value("${names.cache.pages.ttl:10s}") Duration pagesTtl,
+            @Value("${names.cache.pages.maximum-size:1000}") long pagesMaximumSize) {
+        if (!enabled) {
+            return new NoOpCacheManager();
+        }
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(NameCaches.NAMES_BY_UUID,
+                Caffeine.newBuilder().expireAfterWrite(byUuidTtl).maximumSize(byUuidMaximumSize)
+                        .recordStats().build());
+        cacheManager.registerCustomCache(NameCaches.NAME_PAGES,
+                Caffeine.newBuilder().expireAfterWrite(pagesTtl).maximumSize(pagesMaximumSize)
+                        .recordStats().build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.namecollection.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.example.namecollection.security.PermissionAuthenticationToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Remembers verified bearer tokens so a token is decoded, signature-checked and converted to
+ * authorities once rather than on every request. Entries are keyed by a SHA-256 digest of the
+ * token and expire at the token's {@code exp}; tokens without an expiry are never cached.
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+    public static final String CACHE_NAME = "jwtAuthentications";
+    private static final Duration MAXIMUM_LIFETIME = Duration.ofDays(1);
+
+    private final AuthenticationManager delegate;
+    private final Cache<Object, Object> authentications;
+    private final Clock clock;
+
+    public CachingJwtAuthenticationManager(AuthenticationManager delegate, long maximumSize) {
+        this(delegate, maximumSize, Clock.systemUTC());
+    }
+
+    CachingJwtAuthenticationManager(AuthenticationManager delegate, long maximumSize,
+            Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.authentications = Caffeine.newBuilder().maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry()).recordStats().build();
+    }
+
+    /**
+     * The underlying cache, so it can be reported alongside the application's other caches
+     */
+    public Cache<Object, Object> getCache() {
+        return authentications;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+
+        String key = digest(bearer.getToken());
+        if (authentications.getIfPresent(key) instanceof JwtAuthenticationToken cached
+                && remainingLifetime(cached).isPositive()) {
+            // Share the verified token and authorities, but keep per-request details separate
+            JwtAuthenticationToken result = cached instanceof PermissionAuthenticationToken token
+                    ? token.copy()
+                    : new JwtAuthenticationToken(cached.getToken(), cached.getAuthorities(),
+                            cached.getName());
+            result.setDetails(bearer.getDetails());
+            return result;
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result instanceof JwtAuthenticationToken jwtAuthentication
+                && jwtAuthentication.getToken().getExpiresAt() != null) {
+            authentications.put(key, jwtAuthentication);
+        }
+        return result;
+    }
+
+    private Duration remainingLifetime(JwtAuthenticationToken authentication) {
+        Instant expiresAt = authentication.getToken().getExpiresAt();
+        if (expiresAt == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(clock.instant(), expiresAt);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private class UntilTokenExpiry implements Expiry<Object, Object> {
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            Duration remaining = value instanceof JwtAuthenticationToken authentication
+                    ? remainingLifetime(authentication)
+                    : Duration.ZERO;
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            return remaining.compareTo(MAXIMUM_LIFETIME) > 0 ? MAXIMUM_LIFETIME.toNanos()
+                    : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
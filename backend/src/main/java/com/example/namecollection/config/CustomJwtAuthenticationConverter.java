@@ -11,11 +11,13 @@ import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 
+import com.example.namecollection.security.PermissionAuthenticationToken;
+
 /**
- * Custom JWT converter that extracts roles and permissions from Auth0 tokens
+ * Custom JWT converter that extracts roles and permissions from Auth0 tokens. The resulting
+ * authentication also carries them compiled into bitmasks for the authorization checks.
  */
 public class CustomJwtAuthenticationConverter
         implements Converter<Jwt, AbstractAuthenticationToken> {
@@ -34,7 +36,7 @@ public class CustomJwtAuthenticationConverter
         // Extract default authorities (scopes) and combine with our custom authorities
         authorities.addAll(defaultAuthoritiesConverter.convert(jwt));
 
-        return new JwtAuthenticationToken(jwt, authorities, getPrincipalClaimName(jwt));
+        return new PermissionAuthenticationToken(jwt, authorities, getPrincipalClaimName(jwt));
     }
 
     /**
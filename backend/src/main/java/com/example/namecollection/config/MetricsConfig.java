@@ -0,0 +1,130 @@
+package com.example.namecollection.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.namecollection.feed.NameChangeFeed;
+import com.example.namecollection.search.NameSearchIndex;
+import com.example.namecollection.search.NameSuggestionIndex;
+import com.example.namecollection.service.LastLoginUpdater;
+import com.example.namecollection.service.NameCountEstimator;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Application meters that Spring Boot doesn't register on its own. HTTP, repository, Hikari and
+ * cache-manager metrics are auto-configured; these read counters the components already keep,
+ * so nothing extra runs on the request path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    MeterBinder nameSearchMetrics(NameSearchIndex nameSearchIndex,
+            NameCountEstimator nameCountEstimator) {
+        return registry -> {
+            Gauge.builder("names.search.index.ready", nameSearchIndex, i -> i.isReady() ? 1 : 0)
+                    .description("Whether the in-memory search index is answering searches")
+                    .register(registry);
+            Gauge.builder("names.search.index.size", nameSearchIndex, NameSearchIndex::size)
+                    .description("Names held by the in-memory search index").register(registry);
+            FunctionCounter.builder("names.search.index.searches", nameSearchIndex,
+                    NameSearchIndex::searchCount)
+                    .description("Searches answered by the in-memory index").register(registry);
+            FunctionCounter.builder("names.search.index.rebuilds", nameSearchIndex,
+                    NameSearchIndex::rebuildCount)
+                    .description("Rebuilds of the in-memory index from the database")
+                    .register(registry);
+            CaffeineCacheMetrics.monitor(registry, nameCountEstimator.getSearchCounts(),
+                    "nameSearchCounts");
+        };
+    }
+
+    @Bean
+    MeterBinder nameSuggestMetrics(NameSuggestionIndex nameSuggestionIndex) {
+        return registry -> {
+            Gauge.builder("names.suggest.size", nameSuggestionIndex, NameSuggestionIndex::size)
+                    .description("Distinct first and last names offered as suggestions")
+                    .register(registry);
+            Gauge.builder("names.suggest.snapshot.bytes", nameSuggestionIndex,
+                    NameSuggestionIndex::snapshotBytes)
+                    .description("Approximate heap used by the suggestion snapshot")
+                    .baseUnit("bytes").register(registry);
+            FunctionCounter.builder("names.suggest.requests", nameSuggestionIndex,
+                    NameSuggestionIndex::suggestCount)
+                    .description("Suggestion lookups answered").register(registry);
+            FunctionCounter.builder("names.suggest.rebuilds", nameSuggestionIndex,
+                    NameSuggestionIndex::rebuildCount)
+                    .description("Suggestion snapshots built and swapped in").register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder nameChangeMetrics(NameChangeFeed nameChangeFeed) {
+        return registry -> {
+            Gauge.builder("names.changes.subscribers", nameChangeFeed,
+                    NameChangeFeed::subscriberCount)
+                    .description("Open Server-Sent Event streams of name changes")
+                    .register(registry);
+            FunctionCounter.builder("names.changes.published", nameChangeFeed,
+                    NameChangeFeed::publishedCount)
+                    .description("Events published to the change feed").register(registry);
+            FunctionCounter.builder("names.changes.resyncs", nameChangeFeed,
+                    NameChangeFeed::resyncCount)
+                    .description("Subscribers disconnected because they missed changes")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder lastLoginMetrics(LastLoginUpdater lastLoginUpdater) {
+        return registry -> {
+            Gauge.builder("users.last_login.pending", lastLoginUpdater,
+                    LastLoginUpdater::pendingCount)
+                    .description("Last login updates waiting to be written").register(registry);
+            FunctionCounter.builder("users.last_login.written", lastLoginUpdater,
+                    LastLoginUpdater::writtenCount)
+                    .description("Last login updates written in batches").register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder dataSourceMetrics(Map<String, DataSource> dataSources,
+            ObjectProvider<ReadReplicaRouting> readReplicaRouting) {
+        return registry -> {
+            // Limiters are only present in virtual-thread mode; Hikari's own gauges cover the
+            // pools themselves
+            dataSources.forEach((name, dataSource) -> registerLimiter(registry, name, dataSource));
+            readReplicaRouting.ifAvailable(routing -> {
+                routing.getReplicas().forEach(
+                        (name, dataSource) -> registerLimiter(registry, name, dataSource));
+                Gauge.builder("datasource.replicas.healthy", routing,
+                        ReadReplicaRouting::healthyReplicaCount)
+                        .description("Replica pools currently taking reads").register(registry);
+                FunctionCounter.builder("datasource.replicas.primary.fallbacks", routing,
+                        ReadReplicaRouting::primaryFallbackCount)
+                        .description("Reads sent to the primary because no replica was healthy")
+                        .register(registry);
+            });
+        };
+    }
+
+    private static void registerLimiter(MeterRegistry registry, String name,
+            DataSource dataSource) {
+        if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+            Gauge.builder("datasource.connection.permits.available", limiter,
+                    ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("Connection permits free in front of the pool")
+                    .tag("pool", name).register(registry);
+        }
+    }
+}
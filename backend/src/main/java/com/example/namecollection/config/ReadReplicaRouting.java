@@ -0,0 +1,271 @@
+package com.example.namecollection.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Sends read-only transactions to replica pools and everything else to the primary.
+ *
+ * <p>
+ * {@link #getDataSource()} hands out lazy connections that only pick a pool at their first
+ * statement, by which point a {@code @Transactional(readOnly = true)} transaction has marked the
+ * connection read-only. Replicas are used in turn. One that fails to hand out a connection, or
+ * fails the periodic health check, is skipped until a later check passes; with no healthy
+ * replica, reads fall back to the primary.
+ *
+ * <p>
+ * With a read-your-writes window, a user who has just written keeps reading from the primary
+ * for that long, so replication lag can't hide their own change. The user is the authenticated
+ * principal of the current thread; work without one is not tracked. Reads made through
+ * {@link #fillingSharedCache} go to the primary for that long after any write on this instance,
+ * because their result is served to every user and would otherwise put a lagging replica's rows
+ * back into a cache the write has just evicted. The window is counted from when a write
+ * transaction takes its connection, so it should cover the longest write plus replication lag.
+ */
+public class ReadReplicaRouting implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRouting.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final ThreadLocal<Boolean> FILLING_SHARED_CACHE = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder primaryFallbacks = new LongAdder();
+    // Principals that wrote within the window, or null when the window is off
+    private final Cache<String, Boolean> recentWriters;
+    private final long readYourWritesNanos;
+    private volatile long lastWriteNanos;
+    private final LazyConnectionDataSourceProxy dataSource;
+    private ScheduledExecutorService healthChecks;
+
+    public ReadReplicaRouting(DataSource primary, Map<String, DataSource> replicas,
+            Duration readYourWritesWindow) {
+        this.primary = primary;
+        replicas.forEach((name, replica) -> this.replicas.add(new Replica(name, replica)));
+        this.recentWriters = readYourWritesWindow.isZero() ? null
+                : Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow)
+                        .maximumSize(100_000).build();
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+
+        this.dataSource = new LazyConnectionDataSourceProxy(new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                recordWrite();
+                return super.getConnection();
+            }
+        });
+        this.dataSource.setReadOnlyDataSource(new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return getReadOnlyConnection(DataSource::getConnection);
+            }
+
+            @Override
+            public Connection getConnection(String username, String password)
+                    throws SQLException {
+                return getReadOnlyConnection(
+                        pool -> pool.getConnection(username, password));
+            }
+        });
+        // The proxy reads the primary's connection defaults once; that connection is no write
+        this.dataSource.checkDefaultConnectionProperties();
+        this.lastWriteNanos = System.nanoTime() - readYourWritesNanos;
+    }
+
+    /**
+     * Run a read whose result is cached for every user. Within the read-your-writes window of a
+     * write on this instance, its read-only transaction reads from the primary. Must be called
+     * before the transaction runs its first statement.
+     */
+    public static <T> T fillingSharedCache(Supplier<T> read) {
+        Boolean outer = FILLING_SHARED_CACHE.get();
+        FILLING_SHARED_CACHE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            FILLING_SHARED_CACHE.set(outer);
+        }
+    }
+
+    /**
+     * The data source to give to JPA, JDBC and Flyway
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * The replica pools by name, for metrics
+     */
+    public Map<String, DataSource> getReplicas() {
+        Map<String, DataSource> byName = new LinkedHashMap<>();
+        replicas.forEach(replica -> byName.put(replica.name, replica.dataSource));
+        return byName;
+    }
+
+    public int healthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    /**
+     * Number of read-only connections taken from the primary because no replica was healthy
+     */
+    public long primaryFallbackCount() {
+        return primaryFallbacks.sum();
+    }
+
+    /**
+     * Check every replica in the background at the given interval
+     */
+    public synchronized void startHealthChecks(Duration interval) {
+        if (healthChecks != null) {
+            return;
+        }
+        healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecks.scheduleWithFixedDelay(this::checkHealth, interval.toMillis(),
+                interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Mark each replica healthy if it hands out a valid connection
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown("connection is not valid");
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            try {
+                if (replica.dataSource.isWrapperFor(AutoCloseable.class)) {
+                    replica.dataSource.unwrap(AutoCloseable.class).close();
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to close replica pool {}", replica.name, e);
+            }
+        }
+    }
+
+    private void recordWrite() {
+        lastWriteNanos = System.nanoTime();
+        String principal = currentPrincipal();
+        if (recentWriters != null && principal != null) {
+            recentWriters.put(principal, Boolean.TRUE);
+        }
+    }
+
+    private Connection getReadOnlyConnection(ConnectionOpener opener) throws SQLException {
+        if (mustReadFromPrimary()) {
+            return opener.open(primary);
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return opener.open(replica.dataSource);
+            } catch (SQLException | RuntimeException e) {
+                // Skip it until the health check sees it recover
+                replica.markDown(e.getMessage());
+            }
+        }
+
+        primaryFallbacks.increment();
+        return opener.open(primary);
+    }
+
+    private boolean mustReadFromPrimary() {
+        if (recentWriters == null) {
+            return false;
+        }
+        if (FILLING_SHARED_CACHE.get() != null
+                && System.nanoTime() - lastWriteNanos < readYourWritesNanos) {
+            return true;
+        }
+        String principal = currentPrincipal();
+        return principal != null && recentWriters.getIfPresent(principal) != null;
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                ? authentication.getName()
+                : null;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                healthy = true;
+                logger.info("Replica {} is healthy again", name);
+            }
+        }
+
+        void markDown(String reason) {
+            if (healthy) {
+                healthy = false;
+                logger.warn("Replica {} is unavailable, reading from other pools: {}", name,
+                        reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.namecollection.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replicas, enabled with {@code datasource.replicas.enabled=true}. The primary pool keeps
+ * Spring Boot's {@code spring.datasource.*} settings; each entry of
+ * {@code datasource.replicas.pools} takes Hikari settings of its own. See
+ * {@link ReadReplicaRouting} for how connections are routed.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    ReadReplicaRouting readReplicaRouting(@Qualifier("primaryDataSource") DataSource primary,
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${datasource.replicas.health-check-interval:5s}") Duration healthCheckInterval,
+            @Value("${datasource.replicas.read-your-writes-window:5s}") Duration window) {
+        List<HikariConfig> pools = Binder.get(environment)
+                .bind("datasource.replicas.pools", Bindable.listOf(HikariConfig.class))
+                .orElse(List.of());
+        if (pools.isEmpty()) {
+            throw new IllegalStateException("datasource.replicas.enabled is set, but no pools "
+                    + "are configured under datasource.replicas.pools");
+        }
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < pools.size(); i++) {
+            // Started on first use, so a replica that is down doesn't stop the application
+            HikariDataSource pool = new HikariDataSource();
+            pools.get(i).copyStateTo(pool);
+            if (pool.getPoolName() == null) {
+                pool.setPoolName("replica-" + i);
+            }
+            meterRegistry.ifAvailable(
+                    registry -> pool.setMetricsTrackerFactory(
+                            new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(pool.getPoolName(), Threading.VIRTUAL.isActive(environment)
+                    ? ConnectionLimitingDataSource.forPool(pool)
+                    : pool);
+        }
+
+        ReadReplicaRouting routing = new ReadReplicaRouting(primary, replicas, window);
+        routing.startHealthChecks(healthCheckInterval);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(ReadReplicaRouting readReplicaRouting) {
+        return readReplicaRouting.getDataSource();
+    }
+}
@@ -2,9 +2,22 @@ package com.example.namecollection.config;
 
 import java.util.Arrays;
 
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -15,11 +28,18 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtDecoders;
 import org.springframework.security.oauth2.jwt.JwtValidators;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.example.namecollection.security.PermissionAuthorizationManager;
+import com.example.namecollection.security.RequirePermission;
+import com.example.namecollection.security.RoutePermissions;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -31,39 +51,61 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuer;
 
+    @Value("${auth0.jwt-cache.enabled:false}")
+    private boolean jwtCacheEnabled;
+
+    @Value("${auth0.jwt-cache.maximum-size:10000}")
+    private long jwtCacheMaximumSize;
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public SecurityConfig(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.authorizeHttpRequests(auth -> auth
                 // Public endpoints
                 .requestMatchers("/api/public/**").permitAll()
 
-                // Secured endpoints with specific permissions
-                // Viewer permission - read only
-                .requestMatchers(request -> request.getMethod().matches("GET")
-                        && request.getRequestURI().startsWith("/api/names"))
-                .hasAuthority("SCOPE_read:names")
-
-                // Editor permissions - create and update
-                .requestMatchers(request -> request.getMethod().matches("POST")
-                        && request.getRequestURI().startsWith("/api/names"))
-                .hasAuthority("SCOPE_create:names")
-                .requestMatchers(request -> request.getMethod().matches("PUT")
-                        && request.getRequestURI().startsWith("/api/names"))
-                .hasAuthority("SCOPE_update:names")
-
-                // Admin permissions - delete
-                .requestMatchers(request -> request.getMethod().matches("DELETE")
-                        && request.getRequestURI().startsWith("/api/names"))
-                .hasAuthority("SCOPE_delete:names")
-
-                .anyRequest().authenticated())
+                // Health checks and metrics scraping (served on the management port)
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class,
+                        PrometheusScrapeEndpoint.class))
+                .permitAll()
+
+                // Everything else: the permission its route requires (read, create, update or
+                // delete names by HTTP method), otherwise just an authenticated user
+                .anyRequest().access(new RoutePermissions()))
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.decoder(jwtDecoder())
-                        .jwtAuthenticationConverter(new CustomJwtAuthenticationConverter())));
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> {
+                    if (jwtCacheEnabled) {
+                        jwt.authenticationManager(cachingJwtAuthenticationManager());
+                    } else {
+                        jwt.decoder(jwtDecoder())
+                                .jwtAuthenticationConverter(new CustomJwtAuthenticationConverter());
+                    }
+                }));
 
         return http.build();
     }
 
+    /**
+     * Checks {@link RequirePermission} on controller methods
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requirePermissionAuthorization() {
+        AuthorizationManagerBeforeMethodInterceptor interceptor =
+                new AuthorizationManagerBeforeMethodInterceptor(
+                        AnnotationMatchingPointcut.forMethodAnnotation(RequirePermission.class),
+                        new PermissionAuthorizationManager());
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
+
     @Bean
     JwtDecoder jwtDecoder() {
         NimbusJwtDecoder jwtDecoder = JwtDecoders.fromOidcIssuerLocation(issuer);
@@ -75,7 +117,25 @@ public class SecurityConfig {
 
         jwtDecoder.setJwtValidator(withAudience);
 
-        return jwtDecoder;
+        return new TimedJwtDecoder(jwtDecoder, meterRegistry);
+    }
+
+    /**
+     * Verifies each bearer token once and reuses the result until the token expires
+     */
+    private AuthenticationManager cachingJwtAuthenticationManager() {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder());
+        provider.setJwtAuthenticationConverter(new CustomJwtAuthenticationConverter());
+
+        CachingJwtAuthenticationManager authenticationManager =
+                new CachingJwtAuthenticationManager(new ProviderManager(provider),
+                        jwtCacheMaximumSize);
+        // Report the cache's hit and miss counts with the other application caches
+        if (cacheManager instanceof CaffeineCacheManager caffeineCacheManager) {
+            caffeineCacheManager.registerCustomCache(CachingJwtAuthenticationManager.CACHE_NAME,
+                    authenticationManager.getCache());
+        }
+        return authenticationManager;
     }
 
     @Bean
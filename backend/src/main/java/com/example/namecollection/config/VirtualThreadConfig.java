@@ -0,0 +1,34 @@
+package com.example.namecollection.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Settings that only apply when {@code spring.threads.virtual.enabled=true}. Spring Boot then
+ * serves requests and runs {@code @Scheduled} work on virtual threads; this adds a limit in
+ * front of the Hikari pool so thousands of virtual threads can't stampede it.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Each pool is limited to its own size. Replica pools aren't beans, so
+    // ReplicaDataSourceConfig wraps them the same way
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    return ConnectionLimitingDataSource.forPool(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,14 +1,37 @@
 package com.example.namecollection.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,56 +41,305 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.namecollection.cache.NameCaches;
+import com.example.namecollection.cache.NamePageKey;
+import com.example.namecollection.dto.BatchItemErrorDTO;
+import com.example.namecollection.dto.CursorPageDTO;
+import com.example.namecollection.dto.NameBatchResponseDTO;
+import com.example.namecollection.dto.NameCreatedBucketDTO;
 import com.example.namecollection.dto.NameDTO;
+import com.example.namecollection.dto.NameImportReportDTO;
 import com.example.namecollection.dto.NameResponseDTO;
 import com.example.namecollection.dto.NameSearchCriteriaDTO;
+import com.example.namecollection.dto.NameStatsDTO;
+import com.example.namecollection.dto.NameSuggestionDTO;
 import com.example.namecollection.dto.PageDTO;
+import com.example.namecollection.feed.NameChangeFeed;
 import com.example.namecollection.model.Name;
+import com.example.namecollection.protobuf.NameProtobuf;
+import com.example.namecollection.search.NameSuggestionIndex;
+import com.example.namecollection.security.Permission;
+import com.example.namecollection.security.RequirePermission;
+import com.example.namecollection.service.BulkFormat;
+import com.example.namecollection.service.NameImportService;
 import com.example.namecollection.service.NameService;
+import com.example.namecollection.stats.NameStatistics;
 import com.example.namecollection.util.PermissionUtil;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.CodedOutputStream;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 @RestController
 @RequestMapping("/api/names")
 public class NameController {
     private static final Logger logger = LoggerFactory.getLogger(NameController.class);
+    // Browsers may keep responses, but must revalidate them with the server on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    // Representations GET /api/names can stream besides a JSON array
+    private static final List<MediaType> STREAM_FORMATS = List.of(MediaType.APPLICATION_NDJSON,
+            MediaType.APPLICATION_CBOR, SMILE, NameProtobuf.MEDIA_TYPE);
+    // ETag suffixes of the representations a name or a page can be written as; JSON first, as
+    // it is what a wildcard Accept gets
+    private static final List<Map.Entry<MediaType, String>> REPRESENTATION_TAGS = List.of(
+            Map.entry(MediaType.APPLICATION_JSON, "json"),
+            Map.entry(MediaType.APPLICATION_CBOR, "cbor"), Map.entry(SMILE, "smile"),
+            Map.entry(NameProtobuf.MEDIA_TYPE, "proto"));
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_STATS_TOP = 100;
+    private static final int MAX_STATS_DAYS = 366;
+    private static final int MAX_STATS_HOURS = 168;
 
     private final NameService nameService;
+    private final NameImportService nameImportService;
+    private final NameSuggestionIndex nameSuggestionIndex;
+    private final NameStatistics nameStatistics;
+    private final NameChangeFeed nameChangeFeed;
+    private final NameCaches nameCaches;
     private final PermissionUtil permissionUtil;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborObjectMapper;
+    private final ObjectMapper smileObjectMapper;
+    private final Validator validator;
+    private final int maxBatchSize;
 
-    public NameController(NameService nameService, PermissionUtil permissionUtil) {
+    public NameController(NameService nameService, NameImportService nameImportService,
+            NameSuggestionIndex nameSuggestionIndex, NameStatistics nameStatistics,
+            NameChangeFeed nameChangeFeed, NameCaches nameCaches,
+            PermissionUtil permissionUtil, ObjectMapper objectMapper,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter, Validator validator,
+            @Value("${names.batch.max-size:1000}") int maxBatchSize) {
         this.nameService = nameService;
+        this.nameImportService = nameImportService;
+        this.nameSuggestionIndex = nameSuggestionIndex;
+        this.nameStatistics = nameStatistics;
+        this.nameChangeFeed = nameChangeFeed;
+        this.nameCaches = nameCaches;
         this.permissionUtil = permissionUtil;
+        this.objectMapper = objectMapper;
+        this.cborObjectMapper = cborConverter.getObjectMapper();
+        this.smileObjectMapper = smileConverter.getObjectMapper();
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
     }
 
+    /**
+     * Stream every name straight to the response as a JSON array, or as newline-delimited JSON
+     * when the client accepts {@code application/x-ndjson}. Clients may also ask for a CBOR or
+     * Smile array, or length-prefixed Protobuf messages. Rows are written as they are read from
+     * the database, so the full list is never held in memory.
+     */
     @GetMapping
-    @PreAuthorize("hasAuthority('SCOPE_read:names')")
-    public ResponseEntity<List<NameResponseDTO>> getAllNames() {
-        logger.info("Getting all names. User permissions: {}", permissionUtil.getUserPermissions());
-        List<NameResponseDTO> names = nameService.getAllNames();
-        return new ResponseEntity<>(names, HttpStatus.OK);
+    @RequirePermission(Permission.READ_NAMES)
+    public void getAllNames(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+        logger.atDebug().setMessage("Getting all names. User permissions: {}")
+                .addArgument(permissionUtil::getUserPermissions).log();
+        MediaType format = streamFormat(accept);
+        boolean ndjson = MediaType.APPLICATION_NDJSON.equals(format);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(format.toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+        if (NameProtobuf.MEDIA_TYPE.equals(format)) {
+            CodedOutputStream out = CodedOutputStream.newInstance(response.getOutputStream());
+            nameService.streamAllNames(name -> {
+                try {
+                    NameProtobuf.writeDelimitedName(out, name);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+            return;
+        }
+
+        ObjectMapper mapper = objectMapper;
+        if (MediaType.APPLICATION_CBOR.equals(format)) {
+            mapper = cborObjectMapper;
+        } else if (SMILE.equals(format)) {
+            mapper = smileObjectMapper;
+        } else {
+            response.setCharacterEncoding("UTF-8");
+        }
+
+        // Flushing after every row would turn each name into its own network write
+        ObjectWriter writer = mapper.writerFor(NameResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator =
+                mapper.getFactory().createGenerator(response.getOutputStream())) {
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+
+            nameService.streamAllNames(name -> {
+                try {
+                    writer.writeValue(generator, name);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Export the names matching the optional search term, in the requested sort order, as CSV
+     * or as newline-delimited JSON when the client accepts {@code application/x-ndjson}. Rows
+     * are copied from Postgres straight to the response, gzip-compressed when the client
+     * accepts it, so the export runs at network speed with flat memory use.
+     */
+    @GetMapping("/export")
+    @RequirePermission(Permission.READ_NAMES)
+    public void exportNames(@Valid NameSearchCriteriaDTO criteria,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING,
+                    required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        logger.atDebug().setMessage("Exporting names with criteria: {}. User permissions: {}")
+                .addArgument(criteria).addArgument(permissionUtil::getUserPermissions).log();
+        boolean ndjson = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : TEXT_CSV_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.VARY,
+                HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(ndjson ? "names.ndjson" : "names.csv").build().toString());
+
+        OutputStream out = response.getOutputStream();
+        if (acceptsGzip(acceptEncoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out, 64 * 1024);
+        }
+        try (OutputStream body = out) {
+            nameService.exportNames(criteria, ndjson ? BulkFormat.NDJSON : BulkFormat.CSV, body);
+        }
     }
 
     @GetMapping("/search")
-    @PreAuthorize("hasAuthority('SCOPE_read:names')")
+    @RequirePermission(Permission.READ_NAMES)
     public ResponseEntity<PageDTO<NameResponseDTO>> searchNames(
-            @Valid NameSearchCriteriaDTO criteria) {
-        logger.info("Searching names with criteria: {}. User permissions: {}", criteria,
-                permissionUtil.getUserPermissions());
+            @Valid NameSearchCriteriaDTO criteria, HttpServletRequest request) {
+        logger.atDebug().setMessage("Searching names with criteria: {}. User permissions: {}")
+                .addArgument(criteria).addArgument(permissionUtil::getUserPermissions).log();
+
+        // The version is read before the page, so the tag never claims data newer than the body
+        String eTag = pageETag(nameService.getNamesVersion(), criteria,
+                request.getHeader(HttpHeaders.ACCEPT));
+        if (new ServletWebRequest(request).checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT).eTag(eTag).build();
+        }
         PageDTO<NameResponseDTO> page = nameService.getNames(criteria);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).eTag(eTag)
+                .body(page);
+    }
+
+    /**
+     * Type-ahead suggestions: the most used first and last names starting with the prefix,
+     * answered from memory without a database query
+     */
+    @GetMapping("/suggest")
+    @RequirePermission(Permission.READ_NAMES)
+    public ResponseEntity<List<NameSuggestionDTO>> suggestNames(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(
+                nameSuggestionIndex.suggest(prefix, Math.clamp(limit, 1, MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Dashboard statistics, kept in memory and adjusted on every write rather than computed per
+     * request
+     */
+    @GetMapping("/stats")
+    @RequirePermission(Permission.READ_NAMES)
+    public ResponseEntity<NameStatsDTO> getStats(@RequestParam(defaultValue = "10") int top,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "48") int hours) {
+        return ResponseEntity.ok(nameStatistics.snapshot(Math.clamp(top, 1, MAX_STATS_TOP),
+                Math.clamp(days, 1, MAX_STATS_DAYS), Math.clamp(hours, 1, MAX_STATS_HOURS)));
+    }
+
+    /**
+     * Names created per hour or day over an arbitrary time range, counted by the database
+     */
+    @GetMapping("/stats/created")
+    @RequirePermission(Permission.READ_NAMES)
+    public ResponseEntity<List<NameCreatedBucketDTO>> getCreatedHistogram(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "day") String interval) {
+        ChronoUnit unit = switch (interval.toLowerCase(Locale.ROOT)) {
+            case "hour" -> ChronoUnit.HOURS;
+            case "day" -> ChronoUnit.DAYS;
+            default -> throw new IllegalArgumentException("interval must be hour or day");
+        };
+        return ResponseEntity.ok(nameService.countCreatedBetween(from, to, unit));
+    }
+
+    /**
+     * Server-Sent Events for every name created, updated or deleted from now on. A client that
+     * reconnects with {@code Last-Event-ID} gets the changes it missed, or a {@code resync}
+     * event when they are no longer buffered.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequirePermission(Permission.READ_NAMES)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return nameChangeFeed.subscribe(lastEventId)
+                .map(emitter -> ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                        .body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5").build());
+    }
+
+    @GetMapping("/search/cursor")
+    @RequirePermission(Permission.READ_NAMES)
+    public ResponseEntity<CursorPageDTO<NameResponseDTO>> searchNamesAfter(
+            @Valid NameSearchCriteriaDTO criteria) {
+        logger.atDebug()
+                .setMessage("Searching names after cursor with criteria: {}. User permissions: {}")
+                .addArgument(criteria).addArgument(permissionUtil::getUserPermissions).log();
+        CursorPageDTO<NameResponseDTO> page = nameService.getNamesAfter(criteria);
         return new ResponseEntity<>(page, HttpStatus.OK);
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('SCOPE_create:names')")
+    @RequirePermission(Permission.CREATE_NAMES)
     public ResponseEntity<NameResponseDTO> createName(@Valid @RequestBody NameDTO nameDTO) {
-        logger.info("Creating name: {}. User permissions: {}", nameDTO,
-                permissionUtil.getUserPermissions());
+        logger.atDebug().setMessage("Creating name: {}. User permissions: {}")
+                .addArgument(nameDTO).addArgument(permissionUtil::getUserPermissions).log();
         Name name = new Name();
         name.setFirstName(nameDTO.getFirstName());
         name.setLastName(nameDTO.getLastName());
@@ -76,12 +348,104 @@ public class NameController {
         return new ResponseEntity<>(savedName, HttpStatus.CREATED);
     }
 
+    /**
+     * Create several names in one request. Every item is validated first; if any item is
+     * invalid nothing is saved and the errors are reported per item index.
+     */
+    @PostMapping("/batch")
+    @RequirePermission(Permission.CREATE_NAMES)
+    public ResponseEntity<NameBatchResponseDTO> createNames(@RequestBody List<NameDTO> nameDTOs) {
+        logger.atDebug().setMessage("Creating {} names. User permissions: {}")
+                .addArgument(nameDTOs.size()).addArgument(permissionUtil::getUserPermissions).log();
+        if (nameDTOs.isEmpty() || nameDTOs.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "A batch must contain between 1 and " + maxBatchSize + " names");
+        }
+
+        NameBatchResponseDTO response = new NameBatchResponseDTO();
+        List<BatchItemErrorDTO> errors = new ArrayList<>();
+        List<Name> names = new ArrayList<>(nameDTOs.size());
+        for (int i = 0; i < nameDTOs.size(); i++) {
+            NameDTO nameDTO = nameDTOs.get(i);
+            if (nameDTO == null) {
+                errors.add(new BatchItemErrorDTO(i, Map.of("name", "Name is required")));
+                continue;
+            }
+
+            Set<ConstraintViolation<NameDTO>> violations = validator.validate(nameDTO);
+            if (!violations.isEmpty()) {
+                Map<String, String> itemErrors = new HashMap<>();
+                violations.forEach(violation -> itemErrors
+                        .put(violation.getPropertyPath().toString(), violation.getMessage()));
+                errors.add(new BatchItemErrorDTO(i, itemErrors));
+                continue;
+            }
+
+            Name name = new Name();
+            name.setFirstName(nameDTO.getFirstName());
+            name.setLastName(nameDTO.getLastName());
+            names.add(name);
+        }
+
+        if (!errors.isEmpty()) {
+            response.setCreated(List.of());
+            response.setErrors(errors);
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+
+        response.setCreated(nameService.saveNames(names));
+        response.setErrors(List.of());
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Import names from a CSV body (header row naming firstName, lastName and optionally uuid)
+     * or from newline-delimited JSON. The body is read as a stream and written in chunks, each
+     * committed on its own. Records with the uuid of an existing name replace its names, so
+     * this also requires the update permission.
+     */
+    @PostMapping(value = "/import",
+            consumes = { TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    @RequirePermission({ Permission.CREATE_NAMES, Permission.UPDATE_NAMES })
+    public ResponseEntity<NameImportReportDTO> importNames(HttpServletRequest request)
+            throws IOException {
+        logger.atDebug().setMessage("Importing names. User permissions: {}")
+                .addArgument(permissionUtil::getUserPermissions).log();
+
+        boolean ndjson = MediaType.APPLICATION_NDJSON
+                .isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        NameImportReportDTO report = nameImportService.importNames(request.getInputStream(),
+                ndjson ? BulkFormat.NDJSON : BulkFormat.CSV);
+        return new ResponseEntity<>(report,
+                report.getError() == null ? HttpStatus.OK : HttpStatus.BAD_REQUEST);
+    }
+
+    @GetMapping("/{uuid}")
+    @RequirePermission(Permission.READ_NAMES)
+    public ResponseEntity<NameResponseDTO> getName(@PathVariable String uuid,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        logger.atDebug().setMessage("Getting name with uuid: {}. User permissions: {}")
+                .addArgument(uuid).addArgument(permissionUtil::getUserPermissions).log();
+        NameResponseDTO name = nameService.getNameByUuid(uuid);
+        if (name == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        // Spring answers a matching If-None-Match/If-Modified-Since with 304 before serializing
+        Instant updatedAt = name.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        return ResponseEntity.ok().cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag("\"" + Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt),
+                        Character.MAX_RADIX) + "-" + representationTag(accept) + "\"")
+                .lastModified(updatedAt).body(name);
+    }
+
     @PutMapping("/{uuid}")
-    @PreAuthorize("hasAuthority('SCOPE_update:names')")
+    @RequirePermission(Permission.UPDATE_NAMES)
     public ResponseEntity<NameResponseDTO> updateName(@PathVariable String uuid,
             @Valid @RequestBody NameDTO nameDTO) {
-        logger.info("Updating name with UUID: {}. User permissions: {}", uuid,
-                permissionUtil.getUserPermissions());
+        logger.atDebug().setMessage("Updating name with UUID: {}. User permissions: {}")
+                .addArgument(uuid).addArgument(permissionUtil::getUserPermissions).log();
         try {
             NameResponseDTO updatedName =
                     nameService.updateName(uuid, nameDTO.getFirstName(), nameDTO.getLastName());
@@ -96,10 +460,10 @@ public class NameController {
     }
 
     @DeleteMapping("/{uuid}")
-    @PreAuthorize("hasAuthority('SCOPE_delete:names')")
+    @RequirePermission(Permission.DELETE_NAMES)
     public ResponseEntity<HttpStatus> deleteName(@PathVariable String uuid) {
-        logger.info("Deleting name with UUID: {}. User permissions: {}", uuid,
-                permissionUtil.getUserPermissions());
+        logger.atDebug().setMessage("Deleting name with UUID: {}. User permissions: {}")
+                .addArgument(uuid).addArgument(permissionUtil::getUserPermissions).log();
         try {
             nameService.deleteNameByUuid(uuid);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
@@ -121,6 +485,81 @@ public class NameController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @GetMapping("/cache/stats")
+    @RequirePermission(Permission.READ_NAMES)
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        return new ResponseEntity<>(nameCaches.stats(), HttpStatus.OK);
+    }
+
+    /**
+     * The first streamable representation the client accepts, or JSON
+     */
+    private static MediaType streamFormat(String accept) {
+        if (accept != null) {
+            for (MediaType requested : MediaType.parseMediaTypes(accept)) {
+                for (MediaType format : STREAM_FORMATS) {
+                    if (format.equalsTypeAndSubtype(requested)) {
+                        return format;
+                    }
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                // gzip;q=0 means the client refuses it
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The ETag of a search page: a digest of the names version and the page's criteria, plus the
+     * representation. Any committed write, from whichever instance, changes the version, so a
+     * 304 is never answered for data the client doesn't have.
+     */
+    private static String pageETag(long namesVersion, NameSearchCriteriaDTO criteria,
+            String accept) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(Long.toString(namesVersion).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(NamePageKey.of(criteria).toString().getBytes(StandardCharsets.UTF_8));
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest())
+                + "-" + representationTag(accept) + "\"";
+    }
+
+    /**
+     * Distinguishes the tags of the JSON, CBOR, Smile and Protobuf encodings of a resource by the
+     * representation content negotiation picks for the Accept header, most preferred first
+     */
+    private static String representationTag(String accept) {
+        if (accept != null) {
+            List<MediaType> requested = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            MimeTypeUtils.sortBySpecificity(requested);
+            for (MediaType type : requested) {
+                for (Map.Entry<MediaType, String> representation : REPRESENTATION_TAGS) {
+                    if (representation.getKey().isCompatibleWith(type)) {
+                        return representation.getValue();
+                    }
+                }
+            }
+        }
+        return "json";
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public Map<String, String> handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -132,4 +571,12 @@ public class NameController {
         });
         return errors;
     }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public Map<String, String> handleIllegalArgumentException(IllegalArgumentException ex) {
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", ex.getMessage());
+        return errors;
+    }
 }
@@ -0,0 +1,16 @@
+package com.example.namecollection.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemErrorDTO {
+    // Position of the rejected item in the request body
+    private long index;
+    private Map<String, String> errors;
+}
@@ -0,0 +1,14 @@
+package com.example.namecollection.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int pageSize;
+    private boolean hasNext;
+    // Opaque token to pass as "after" for the next page, null on the last page
+    private String nextCursor;
+}
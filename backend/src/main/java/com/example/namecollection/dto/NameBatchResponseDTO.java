@@ -0,0 +1,11 @@
+package com.example.namecollection.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class NameBatchResponseDTO {
+    private List<NameResponseDTO> created;
+    private List<BatchItemErrorDTO> errors;
+}
@@ -0,0 +1,20 @@
+package com.example.namecollection.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameChangeDTO {
+    // "created", "updated" or "deleted"
+    private String type;
+    private String uuid;
+    // For a deleted name, the names it had
+    private String firstName;
+    private String lastName;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,13 @@
+package com.example.namecollection.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameCountDTO {
+    private String value;
+    private long count;
+}
@@ -0,0 +1,16 @@
+package com.example.namecollection.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameCreatedBucketDTO {
+    // Start of the hour or day
+    private LocalDateTime start;
+    private long count;
+}
@@ -0,0 +1,24 @@
+package com.example.namecollection.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * The outcome of one chunk of a bulk import, committed in its own transaction
+ */
+@Data
+public class NameImportChunkDTO {
+    private int chunk;
+    // Positions of the chunk's first and last records in the request body
+    private long firstRecord;
+    private long lastRecord;
+    private int received;
+    private int inserted;
+    private int updated;
+    // Records whose uuid already had the same names, or was repeated later in the chunk
+    private int unchanged;
+    private int rejected;
+    // Only the first few rejections of a chunk are itemised
+    private List<BatchItemErrorDTO> errors;
+}
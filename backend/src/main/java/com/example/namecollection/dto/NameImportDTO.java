@@ -0,0 +1,19 @@
+package com.example.namecollection.dto;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * One record of a bulk import. The names follow the same rules as {@link NameDTO}; a record
+ * with a uuid replaces the names of the existing name with that uuid, if there is one.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class NameImportDTO extends NameDTO {
+    @Pattern(regexp = "^[0-9a-fA-F]{8}(-[0-9a-fA-F]{4}){3}-[0-9a-fA-F]{12}$",
+            message = "UUID must be in the form xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx")
+    private String uuid;
+}
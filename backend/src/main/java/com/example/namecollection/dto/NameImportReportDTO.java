@@ -0,0 +1,18 @@
+package com.example.namecollection.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class NameImportReportDTO {
+    private long received;
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long rejected;
+    private List<NameImportChunkDTO> chunks = new ArrayList<>();
+    // Set when the body could not be parsed; chunks before the failure stay committed
+    private String error;
+}
@@ -2,12 +2,17 @@ package com.example.namecollection.dto;
 
 import java.time.LocalDateTime;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class NameResponseDTO {
     private String uuid;
     private String firstName;
     private String lastName;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
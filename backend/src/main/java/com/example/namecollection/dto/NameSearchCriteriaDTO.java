@@ -5,8 +5,14 @@ import lombok.Data;
 @Data
 public class NameSearchCriteriaDTO {
     private String searchTerm;
+    // How the search term is matched: "contains", "phonetic" or "fuzzy"
+    private String mode = "contains";
     private String sortBy = "createdAt";
     private String sortDirection = "DESC";
     private int page = 0;
     private int size = 10;
+    // How totalElements is computed: "exact", "estimated" or "none"
+    private String totalMode = "exact";
+    // Cursor returned by the previous cursor page; when set, page is ignored
+    private String after;
 }
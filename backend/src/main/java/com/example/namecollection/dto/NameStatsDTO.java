@@ -0,0 +1,20 @@
+package com.example.namecollection.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class NameStatsDTO {
+    private long total;
+    private int distinctFirstNames;
+    private int distinctLastNames;
+    private List<NameCountDTO> topFirstNames;
+    private List<NameCountDTO> topLastNames;
+    // Oldest first, with empty buckets included
+    private List<NameCreatedBucketDTO> createdPerDay;
+    private List<NameCreatedBucketDTO> createdPerHour;
+    // When the aggregates were last recomputed from the database
+    private LocalDateTime reconciledAt;
+}
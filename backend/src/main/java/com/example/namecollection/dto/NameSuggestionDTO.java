@@ -0,0 +1,14 @@
+package com.example.namecollection.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameSuggestionDTO {
+    private String value;
+    // Number of names using the value as their first or last name
+    private int count;
+}
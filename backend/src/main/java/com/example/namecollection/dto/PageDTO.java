@@ -13,4 +13,6 @@ public class PageDTO<T> {
     private int totalPages;
     private boolean last;
     private boolean first;
+    // "exact", "estimated", or "none" when totals were skipped (totalElements/totalPages are -1)
+    private String totalMode;
 }
@@ -0,0 +1,40 @@
+package com.example.namecollection.event;
+
+import java.time.LocalDateTime;
+
+import com.example.namecollection.model.Name;
+
+/**
+ * Published by {@code NameService} whenever a name is created, updated or deleted. Components
+ * that keep derived state should listen with a transactional event listener so they only see
+ * committed changes.
+ *
+ * <p>
+ * For {@link Type#DELETED} the name fields describe the row that was removed; for
+ * {@link Type#UPDATED} the previous name fields hold the values before the update.
+ */
+public record NameChangedEvent(Type type, Long id, String uuid, String firstName,
+        String lastName, LocalDateTime createdAt, String previousFirstName,
+        String previousLastName) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static NameChangedEvent created(Name name) {
+        return new NameChangedEvent(Type.CREATED, name.getId(), name.getUuid(),
+                name.getFirstName(), name.getLastName(), name.getCreatedAt(), null, null);
+    }
+
+    public static NameChangedEvent updated(Name name, String previousFirstName,
+            String previousLastName) {
+        return new NameChangedEvent(Type.UPDATED, name.getId(), name.getUuid(),
+                name.getFirstName(), name.getLastName(), name.getCreatedAt(), previousFirstName,
+                previousLastName);
+    }
+
+    public static NameChangedEvent deleted(Name name) {
+        return new NameChangedEvent(Type.DELETED, name.getId(), name.getUuid(),
+                name.getFirstName(), name.getLastName(), name.getCreatedAt(), null, null);
+    }
+}
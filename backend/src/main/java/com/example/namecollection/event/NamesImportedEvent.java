@@ -0,0 +1,11 @@
+package com.example.namecollection.event;
+
+import java.util.List;
+
+/**
+ * Published by {@code NameImportService} once per committed chunk of a bulk import, instead of
+ * one {@link NameChangedEvent} per row. Listeners can apply the changes as a batch, or simply
+ * drop state derived from many names at once.
+ */
+public record NamesImportedEvent(List<NameChangedEvent> changes) {
+}
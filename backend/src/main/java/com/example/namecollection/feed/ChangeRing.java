@@ -0,0 +1,80 @@
+package com.example.namecollection.feed;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent changes, written and read without locks.
+ *
+ * <p>
+ * Each publish claims the next sequence number with one atomic increment and stores its entry
+ * in the slot that sequence maps to, overwriting the entry one lap older. Writers never wait for
+ * readers. A reader follows its own sequence and can tell from the slot whether its entry is
+ * there, not yet written, or already overwritten because the reader fell a lap behind.
+ */
+final class ChangeRing {
+
+    /**
+     * A published change: its sequence number, SSE event name and data
+     */
+    record Entry(long sequence, String name, Object data) {
+    }
+
+    /**
+     * Returned by {@link #read} when the entry was overwritten before it was read
+     */
+    static final Entry LAPPED = new Entry(-1, null, null);
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * @param capacity the number of entries kept, rounded up to a power of two
+     */
+    ChangeRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * The sequence number the next publish will claim
+     */
+    long head() {
+        return next.get();
+    }
+
+    /**
+     * Store a change, overwriting the oldest one if the ring is full
+     *
+     * @return its sequence number
+     */
+    long publish(String name, Object data) {
+        long sequence = next.getAndIncrement();
+        slots.set((int) (sequence & mask), new Entry(sequence, name, data));
+        return sequence;
+    }
+
+    /**
+     * The entry with the given sequence number
+     *
+     * @return the entry, {@code null} if it has not been written yet, or {@link #LAPPED} if it
+     *         has already been overwritten
+     */
+    Entry read(long sequence) {
+        if (next.get() - sequence > slots.length()) {
+            return LAPPED;
+        }
+        Entry entry = slots.get((int) (sequence & mask));
+        if (entry == null || entry.sequence() < sequence) {
+            // Claimed but not stored yet, or not claimed at all
+            return null;
+        }
+        return entry.sequence() == sequence ? entry : LAPPED;
+    }
+}
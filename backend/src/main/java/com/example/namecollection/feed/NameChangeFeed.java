@@ -0,0 +1,249 @@
+package com.example.namecollection.feed;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.namecollection.dto.NameChangeDTO;
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.event.NamesImportedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes committed name changes to clients as Server-Sent Events.
+ *
+ * <p>
+ * Changes go into a bounded {@link ChangeRing}; publishing never waits for subscribers. Each
+ * subscriber runs on its own virtual thread that parks until a change arrives, so idle
+ * connections cost a parked virtual thread and no request thread. A subscriber that falls more
+ * than the ring's capacity behind, typically because its client reads slowly, is sent a
+ * {@code resync} event and disconnected: the client should reload what it shows and reconnect.
+ *
+ * <p>
+ * Event ids carry the instance's start time, so a client reconnecting with
+ * {@code Last-Event-ID} resumes right after its last event while that is still in the ring, and
+ * is told to resync when it is not, or when the id comes from another instance or a previous
+ * run.
+ */
+@Component
+public class NameChangeFeed {
+    private static final Logger logger = LoggerFactory.getLogger(NameChangeFeed.class);
+
+    static final String RESYNC_EVENT = "resync";
+    private static final String EPOCH =
+            Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final ChangeRing ring;
+    private final int maxSubscribers;
+    private final Duration heartbeatInterval;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Slots are taken with compare-and-set, so concurrent subscribes can't overshoot the limit
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final LongAdder resyncCount = new LongAdder();
+
+    public NameChangeFeed(@Value("${names.changes.buffer-size:4096}") int bufferSize,
+            @Value("${names.changes.max-subscribers:10000}") int maxSubscribers,
+            @Value("${names.changes.heartbeat-interval:15s}") Duration heartbeatInterval,
+            @Value("${names.changes.timeout:30m}") Duration timeout) {
+        this.ring = new ChangeRing(bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatInterval = heartbeatInterval;
+        this.timeout = timeout;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Number of changes published since startup
+     */
+    public long publishedCount() {
+        return ring.head();
+    }
+
+    /**
+     * Number of subscribers told to resync because they missed changes
+     */
+    public long resyncCount() {
+        return resyncCount.sum();
+    }
+
+    /**
+     * Open a stream of changes
+     *
+     * @param lastEventId the id of the last event the client received, or null to start with
+     *        the next change
+     * @return the emitter to return from the controller, or empty if there are already
+     *         {@code names.changes.max-subscribers} subscribers
+     */
+    public Optional<SseEmitter> subscribe(String lastEventId) {
+        if (!reserveSlot()) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, resumeFrom(lastEventId));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        subscriber.thread = Thread.ofVirtual()
+                .name("name-changes-" + subscriberIds.incrementAndGet())
+                .unstarted(subscriber::run);
+        subscribers.add(subscriber);
+        subscriber.thread.start();
+        return Optional.of(emitter);
+    }
+
+    // After commit, so subscribers never see a change that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNameChanged(NameChangedEvent event) {
+        publish(event);
+        wakeSubscribers();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNamesImported(NamesImportedEvent event) {
+        if (event.changes().size() > ring.capacity() / 4) {
+            // Pushed one name at a time, a chunk this large would lap slow subscribers; a single
+            // resync event tells clients to reload instead, and they stay connected
+            ring.publish(RESYNC_EVENT, "import");
+        } else {
+            event.changes().forEach(this::publish);
+        }
+        wakeSubscribers();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.emitter.complete();
+        });
+    }
+
+    private boolean reserveSlot() {
+        int count;
+        do {
+            count = subscriberCount.get();
+            if (count >= maxSubscribers) {
+                return false;
+            }
+        } while (!subscriberCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    private void publish(NameChangedEvent event) {
+        ring.publish(event.type().name().toLowerCase(Locale.ROOT),
+                new NameChangeDTO(event.type().name().toLowerCase(Locale.ROOT), event.uuid(),
+                        event.firstName(), event.lastName(), event.createdAt()));
+    }
+
+    private void wakeSubscribers() {
+        subscribers.forEach(subscriber -> LockSupport.unpark(subscriber.thread));
+    }
+
+    /**
+     * The sequence to start reading from, or -1 if the client has missed changes
+     */
+    private long resumeFrom(String lastEventId) {
+        long head = ring.head();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return head;
+        }
+
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !EPOCH.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            long next = Long.parseLong(lastEventId.substring(separator + 1)) + 1;
+            return next <= head && head - next <= ring.capacity() ? next : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static String eventId(long sequence) {
+        return EPOCH + "-" + sequence;
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private volatile Thread thread;
+        private volatile boolean closed;
+        private long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void close() {
+            closed = true;
+            LockSupport.unpark(thread);
+        }
+
+        void run() {
+            try {
+                if (cursor < 0) {
+                    resync("missed");
+                    return;
+                }
+
+                long heartbeatNanos = heartbeatInterval.toNanos();
+                while (!closed) {
+                    ChangeRing.Entry entry = ring.read(cursor);
+                    if (entry == ChangeRing.LAPPED) {
+                        resync("behind");
+                        return;
+                    }
+                    if (entry != null) {
+                        emitter.send(SseEmitter.event().id(eventId(entry.sequence()))
+                                .name(entry.name()).data(entry.data()));
+                        cursor++;
+                        continue;
+                    }
+
+                    long parkedAt = System.nanoTime();
+                    LockSupport.parkNanos(this, heartbeatNanos);
+                    // Woken by neither a change nor close: keep idle proxies from cutting us off
+                    if (!closed && ring.head() == cursor
+                            && System.nanoTime() - parkedAt >= heartbeatNanos) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away, or the emitter already completed
+                logger.debug("Name change subscriber disconnected: {}", e.getMessage());
+            } finally {
+                subscribers.remove(this);
+                subscriberCount.decrementAndGet();
+            }
+        }
+
+        private void resync(String reason) throws IOException {
+            resyncCount.increment();
+            emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(reason));
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.namecollection.logging;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes one structured access log event per request to the {@value #LOGGER_NAME} logger, which
+ * logback-spring.xml sends through an asynchronous appender. Slow requests and server errors are
+ * always logged; other requests are sampled, or skipped entirely in slow-only mode. Event fields
+ * are only computed for requests that are actually logged. Runs first, so the time spent in the
+ * security filter chain and requests it rejects are logged too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+    static final String LOGGER_NAME = "access";
+
+    private static final Logger logger = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final RequestAttributeSecurityContextRepository SECURITY_CONTEXTS =
+            new RequestAttributeSecurityContextRepository();
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final boolean slowOnly;
+
+    public AccessLogFilter(@Value("${access-log.sample-rate:1.0}") double sampleRate,
+            @Value("${access-log.slow-threshold:1s}") Duration slowThreshold,
+            @Value("${access-log.slow-only:false}") boolean slowOnly) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("access-log.sample-rate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowOnly = slowOnly;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        if (!logger.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            // An exception escaping the chain becomes a 500 once the container handles it
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                    : response.getStatus();
+            if (shouldLog(status, elapsedNanos, ThreadLocalRandom.current().nextDouble())) {
+                // The security filter chain has cleared its context by now; the bearer token
+                // filter also left it in a request attribute
+                Authentication authentication = SECURITY_CONTEXTS.loadDeferredContext(request)
+                        .get().getAuthentication();
+                logger.atInfo().addKeyValue("method", request.getMethod())
+                        .addKeyValue("path", request.getRequestURI())
+                        .addKeyValue("status", status)
+                        .addKeyValue("duration_ms", elapsedNanos / 1_000_000)
+                        .addKeyValue("user", () -> authentication != null
+                                && authentication.isAuthenticated() ? authentication.getName()
+                                        : null)
+                        .addKeyValue("slow", elapsedNanos >= slowThresholdNanos)
+                        .log("{} {} {}", request.getMethod(), request.getRequestURI(), status);
+            }
+        }
+    }
+
+    /**
+     * Decide whether a finished request is logged
+     *
+     * @param status the response status
+     * @param elapsedNanos how long the request took
+     * @param sample a uniformly random number in [0, 1)
+     * @return true if the request should be logged
+     */
+    boolean shouldLog(int status, long elapsedNanos, double sample) {
+        if (elapsedNanos >= slowThresholdNanos || status >= 500) {
+            return true;
+        }
+        return !slowOnly && sample < sampleRate;
+    }
+}
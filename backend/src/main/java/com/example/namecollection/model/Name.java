@@ -1,27 +1,34 @@
 package com.example.namecollection.model;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
+import com.example.namecollection.search.NameKeys;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 @Entity
 @Table(name = "names")
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Name {
+    // Pooled sequence ids (not IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "names_id_seq")
+    @SequenceGenerator(name = "names_id_seq", sequenceName = "names_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "uuid", nullable = false, unique = true, updatable = false)
@@ -33,14 +40,62 @@ public class Name {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
+    // Both timestamps are kept at microsecond precision, like the columns, so the value read back
+    // matches the one written and keyset cursors compare equal values
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Search keys derived from the names (see NameKeys), kept in step on every write
+    @Setter(AccessLevel.NONE)
+    @Column(name = "first_name_folded")
+    private String firstNameFolded;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "last_name_folded")
+    private String lastNameFolded;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "first_name_phonetic")
+    private String firstNamePhonetic;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "last_name_phonetic")
+    private String lastNamePhonetic;
+
+    public Name(Long id, String uuid, String firstName, String lastName, LocalDateTime createdAt,
+            LocalDateTime updatedAt) {
+        this.id = id;
+        this.uuid = uuid;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        updateSearchKeys();
+    }
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
         if (uuid == null) {
             uuid = UUID.randomUUID().toString();
         }
+        updateSearchKeys();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updateSearchKeys();
+    }
+
+    private void updateSearchKeys() {
+        firstNameFolded = NameKeys.fold(firstName);
+        lastNameFolded = NameKeys.fold(lastName);
+        firstNamePhonetic = firstName == null ? null : NameKeys.phonetic(firstName);
+        lastNamePhonetic = lastName == null ? null : NameKeys.phonetic(lastName);
     }
 }
@@ -0,0 +1,195 @@
+package com.example.namecollection.protobuf;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.MediaType;
+
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.dto.PageDTO;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+/**
+ * Encodes and decodes the {@code Name} and {@code NamePage} messages of
+ * {@code src/main/proto/names.proto} directly from the DTOs, so no generated classes or
+ * intermediate message objects are needed.
+ */
+public final class NameProtobuf {
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-protobuf");
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Name fields
+    private static final int UUID = 1;
+    private static final int FIRST_NAME = 2;
+    private static final int LAST_NAME = 3;
+    private static final int CREATED_AT = 4;
+    private static final int UPDATED_AT = 5;
+
+    // NamePage fields
+    private static final int CONTENT = 1;
+    private static final int PAGE_NUMBER = 2;
+    private static final int PAGE_SIZE = 3;
+    private static final int TOTAL_ELEMENTS = 4;
+    private static final int TOTAL_PAGES = 5;
+    private static final int LAST = 6;
+    private static final int FIRST = 7;
+    private static final int TOTAL_MODE = 8;
+
+    private NameProtobuf() {
+    }
+
+    /**
+     * Write a name prefixed with its length, for a stream of names
+     */
+    public static void writeDelimitedName(CodedOutputStream out, NameResponseDTO name)
+            throws IOException {
+        out.writeUInt32NoTag(nameSize(name));
+        writeName(out, name);
+    }
+
+    public static void writeName(CodedOutputStream out, NameResponseDTO name)
+            throws IOException {
+        if (hasText(name.getUuid())) {
+            out.writeString(UUID, name.getUuid());
+        }
+        if (hasText(name.getFirstName())) {
+            out.writeString(FIRST_NAME, name.getFirstName());
+        }
+        if (hasText(name.getLastName())) {
+            out.writeString(LAST_NAME, name.getLastName());
+        }
+        if (name.getCreatedAt() != null) {
+            out.writeInt64(CREATED_AT, toMicros(name.getCreatedAt()));
+        }
+        if (name.getUpdatedAt() != null) {
+            out.writeInt64(UPDATED_AT, toMicros(name.getUpdatedAt()));
+        }
+    }
+
+    public static void writePage(CodedOutputStream out, PageDTO<?> page) throws IOException {
+        for (Object item : page.getContent()) {
+            if (!(item instanceof NameResponseDTO name)) {
+                throw new IllegalArgumentException(
+                        "Only pages of names can be written as protobuf");
+            }
+            out.writeTag(CONTENT, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            writeDelimitedName(out, name);
+        }
+        // Like generated code, fields holding their default value are left out
+        if (page.getPageNumber() != 0) {
+            out.writeInt32(PAGE_NUMBER, page.getPageNumber());
+        }
+        if (page.getPageSize() != 0) {
+            out.writeInt32(PAGE_SIZE, page.getPageSize());
+        }
+        if (page.getTotalElements() != 0) {
+            out.writeInt64(TOTAL_ELEMENTS, page.getTotalElements());
+        }
+        if (page.getTotalPages() != 0) {
+            out.writeInt32(TOTAL_PAGES, page.getTotalPages());
+        }
+        if (page.isLast()) {
+            out.writeBool(LAST, true);
+        }
+        if (page.isFirst()) {
+            out.writeBool(FIRST, true);
+        }
+        if (hasText(page.getTotalMode())) {
+            out.writeString(TOTAL_MODE, page.getTotalMode());
+        }
+    }
+
+    public static NameResponseDTO readName(CodedInputStream in) throws IOException {
+        NameResponseDTO name = new NameResponseDTO();
+        name.setUuid("");
+        name.setFirstName("");
+        name.setLastName("");
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case UUID -> name.setUuid(in.readString());
+                case FIRST_NAME -> name.setFirstName(in.readString());
+                case LAST_NAME -> name.setLastName(in.readString());
+                case CREATED_AT -> name.setCreatedAt(fromMicros(in.readInt64()));
+                case UPDATED_AT -> name.setUpdatedAt(fromMicros(in.readInt64()));
+                default -> in.skipField(tag);
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Read one length-prefixed name from a stream of names
+     *
+     * @return the name, or null at the end of the stream
+     */
+    public static NameResponseDTO readDelimitedName(CodedInputStream in) throws IOException {
+        if (in.isAtEnd()) {
+            return null;
+        }
+        int limit = in.pushLimit(in.readRawVarint32());
+        NameResponseDTO name = readName(in);
+        in.popLimit(limit);
+        return name;
+    }
+
+    public static PageDTO<NameResponseDTO> readPage(CodedInputStream in) throws IOException {
+        PageDTO<NameResponseDTO> page = new PageDTO<>();
+        List<NameResponseDTO> content = new ArrayList<>();
+        page.setTotalMode("");
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case CONTENT -> content.add(readDelimitedName(in));
+                case PAGE_NUMBER -> page.setPageNumber(in.readInt32());
+                case PAGE_SIZE -> page.setPageSize(in.readInt32());
+                case TOTAL_ELEMENTS -> page.setTotalElements(in.readInt64());
+                case TOTAL_PAGES -> page.setTotalPages(in.readInt32());
+                case LAST -> page.setLast(in.readBool());
+                case FIRST -> page.setFirst(in.readBool());
+                case TOTAL_MODE -> page.setTotalMode(in.readString());
+                default -> in.skipField(tag);
+            }
+        }
+        page.setContent(content);
+        return page;
+    }
+
+    private static int nameSize(NameResponseDTO name) {
+        int size = 0;
+        if (hasText(name.getUuid())) {
+            size += CodedOutputStream.computeStringSize(UUID, name.getUuid());
+        }
+        if (hasText(name.getFirstName())) {
+            size += CodedOutputStream.computeStringSize(FIRST_NAME, name.getFirstName());
+        }
+        if (hasText(name.getLastName())) {
+            size += CodedOutputStream.computeStringSize(LAST_NAME, name.getLastName());
+        }
+        if (name.getCreatedAt() != null) {
+            size += CodedOutputStream.computeInt64Size(CREATED_AT, toMicros(name.getCreatedAt()));
+        }
+        if (name.getUpdatedAt() != null) {
+            size += CodedOutputStream.computeInt64Size(UPDATED_AT, toMicros(name.getUpdatedAt()));
+        }
+        return size;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(EPOCH, dateTime);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
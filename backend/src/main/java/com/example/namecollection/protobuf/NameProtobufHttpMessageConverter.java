@@ -0,0 +1,58 @@
+package com.example.namecollection.protobuf;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.dto.PageDTO;
+import com.google.protobuf.CodedOutputStream;
+
+/**
+ * Writes names and pages of names as {@code application/x-protobuf} when a client asks for it.
+ * Only responses are supported; request bodies stay JSON.
+ */
+public class NameProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public NameProtobufHttpMessageConverter() {
+        super(NameProtobuf.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return NameResponseDTO.class == clazz || PageDTO.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported",
+                inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage)
+            throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        try {
+            if (value instanceof NameResponseDTO name) {
+                NameProtobuf.writeName(out, name);
+            } else {
+                NameProtobuf.writePage(out, (PageDTO<?>) value);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotWritableException(e.getMessage(), e);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.namecollection.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Number of names per first name, per last name and per hour of creation (keyed by the start of
+ * the hour). Names without a creation time are only counted by name.
+ */
+public record NameAggregates(Map<String, Long> firstNames, Map<String, Long> lastNames,
+        Map<LocalDateTime, Long> createdPerHour) {
+}
@@ -0,0 +1,11 @@
+package com.example.namecollection.repository;
+
+import java.util.List;
+
+import com.example.namecollection.dto.NameResponseDTO;
+
+/**
+ * Search candidates up to the requested limit, and how many there were before it
+ */
+public record NameCandidates(List<NameResponseDTO> names, long total) {
+}
@@ -0,0 +1,9 @@
+package com.example.namecollection.repository;
+
+import com.example.namecollection.dto.NameResponseDTO;
+
+/**
+ * A name read for a cursor page, with the id that breaks ties between equal sort keys
+ */
+public record NameKeysetRow(long id, NameResponseDTO name) {
+}
@@ -1,25 +1,101 @@
 package com.example.namecollection.repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.example.namecollection.dto.NameResponseDTO;
 import com.example.namecollection.model.Name;
 
-public interface NameRepository extends JpaRepository<Name, Long> {
-    Optional<Name> findByUuid(String uuid);
+import jakarta.persistence.QueryHint;
+
+public interface NameRepository
+        extends JpaRepository<Name, Long>, JpaSpecificationExecutor<Name>, NameRepositoryCustom {
+
+    /**
+     * Substring search over both name columns. Each branch of the UNION filters on a single
+     * lower-cased column so Postgres can serve it from its trigram index; an OR across the two
+     * columns would fall back to a sequential scan. The pattern must already be lower-cased and
+     * have its LIKE wildcards escaped with a backslash. Applies to {@code names n}.
+     */
+    String SEARCH_BY_TERM_FILTER = """
+             WHERE n.id IN (
+                SELECT id FROM names WHERE lower(first_name) LIKE :pattern ESCAPE '\\'
+                UNION
+                SELECT id FROM names WHERE lower(last_name) LIKE :pattern ESCAPE '\\'
+            )""";
+
+    /**
+     * The {@link #SEARCH_BY_TERM_FILTER} matches, selecting only the columns of
+     * {@link NameResponseDTO}
+     */
+    String SEARCH_BY_TERM_QUERY = "SELECT n.uuid, n.first_name, n.last_name, n.created_at, "
+            + "n.updated_at FROM names n" + SEARCH_BY_TERM_FILTER;
+
+    String COUNT_BY_TERM_QUERY = """
+            SELECT count(*) FROM (
+                SELECT id FROM names WHERE lower(first_name) LIKE :pattern ESCAPE '\\'
+                UNION
+                SELECT id FROM names WHERE lower(last_name) LIKE :pattern ESCAPE '\\'
+            ) matches""";
+
+    /**
+     * Constructor projection for read paths: only the exposed columns are selected and no
+     * entities are loaded into the persistence context.
+     */
+    String RESPONSE_SELECT = "SELECT new com.example.namecollection.dto.NameResponseDTO("
+            + "n.uuid, n.firstName, n.lastName, n.createdAt, n.updatedAt) FROM Name n";
+
+    @Query(RESPONSE_SELECT + " WHERE n.uuid = :uuid")
+    Optional<NameResponseDTO> findResponseByUuid(@Param("uuid") String uuid);
+
+    @Query(value = RESPONSE_SELECT, countQuery = "SELECT count(n) FROM Name n")
+    Page<NameResponseDTO> findResponsePage(Pageable pageable);
+
+    /**
+     * Same as {@link #findResponsePage} but fetches one extra row to tell whether a next page
+     * exists instead of counting.
+     */
+    @Query(RESPONSE_SELECT)
+    Slice<NameResponseDTO> findResponseSlice(Pageable pageable);
+
+    List<Name> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Stream every name through a forward-only cursor. Must be consumed inside a transaction,
+     * which also lets the Postgres driver honour the fetch size instead of buffering all rows.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_SELECT + " ORDER BY n.id")
+    Stream<NameResponseDTO> streamAllResponses();
+
+    /**
+     * Counter bumped by every statement that writes to names, from any instance (see the
+     * names_version trigger). Postgres only.
+     */
+    @Query(value = "SELECT version FROM names_version WHERE id = 1", nativeQuery = true)
+    long findNamesVersion();
 
-    @Transactional
-    @Modifying
-    @Query("DELETE FROM Name n WHERE n.uuid = :uuid")
-    void deleteByUuid(@Param("uuid") String uuid);
+    @Query(value = COUNT_BY_TERM_QUERY, nativeQuery = true)
+    long countByTerm(@Param("pattern") String pattern);
 
-    Page<Name> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String searchTerm,
-            String searchTerm2, Pageable pageable);
+    /**
+     * Planner row estimate for the names table, maintained by autovacuum/ANALYZE. Postgres only;
+     * returns -1 if the table has never been analyzed.
+     */
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class "
+            + "WHERE oid = to_regclass('names')", nativeQuery = true)
+    Long estimateRowCount();
 }
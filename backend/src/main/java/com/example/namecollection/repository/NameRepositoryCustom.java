@@ -0,0 +1,139 @@
+package com.example.namecollection.repository;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Sort;
+
+import com.example.namecollection.dto.NameCreatedBucketDTO;
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.model.Name;
+
+/**
+ * Queries written directly in SQL: read projections that map rows straight to DTOs, and
+ * single-statement writes that return the affected row using Postgres {@code RETURNING}.
+ */
+public interface NameRepositoryCustom {
+
+    /**
+     * A page of names whose first or last name contains the pattern
+     *
+     * @param pattern the lower-cased LIKE pattern with wildcards escaped by a backslash
+     * @param columnSort the order, using column names such as {@code first_name}
+     * @param offset the number of matches to skip
+     * @param limit the maximum number of names to return
+     */
+    List<NameResponseDTO> searchResponsesByTerm(String pattern, Sort columnSort, long offset,
+            int limit);
+
+    /**
+     * A cursor page of names whose first or last name contains the pattern: the rows following
+     * the given position in the order of the column, ties broken by id in the same direction.
+     * NULLs sort as in Postgres, last ascending and first descending.
+     *
+     * @param pattern the lower-cased LIKE pattern with wildcards escaped by a backslash, or null
+     *        for every name
+     * @param columnOrder the sort column, such as {@code created_at}, and its direction
+     * @param afterKey the sort key of the last row of the previous page; may be null
+     * @param afterId the id of the last row of the previous page, or null for the first page
+     * @param limit the maximum number of names to return
+     */
+    List<NameKeysetRow> searchResponsesAfter(String pattern, Sort.Order columnOrder,
+            Object afterKey, Long afterId, int limit);
+
+    /**
+     * The names with the given ids, in the same order; ids with no row are skipped
+     */
+    List<NameResponseDTO> findResponsesByIds(long[] ids);
+
+    /**
+     * Names whose first or last name has one of the phonetic codes or, with a folded term, is
+     * similar to it by trigrams. Each lookup uses an index on the search keys; the caller ranks
+     * the candidates. Past the limit, exact matches and then the names most similar to the term
+     * are kept.
+     *
+     * @param codes Double Metaphone codes to look up
+     * @param foldedTerm the folded search term
+     * @param similar whether to also look up names similar to the term by trigrams
+     * @param limit the maximum number of candidates to return
+     */
+    NameCandidates findSearchCandidates(Collection<String> codes, String foldedTerm,
+            boolean similar, int limit);
+
+    /**
+     * Rename the name with the given uuid
+     *
+     * @return the updated name and its previous names, or empty if no name has the uuid
+     */
+    Optional<NameUpdate> updateByUuidReturning(String uuid, String firstName, String lastName);
+
+    /**
+     * Delete the name with the given uuid
+     *
+     * @return the deleted name, or empty if no row was affected
+     */
+    Optional<Name> deleteByUuidReturning(String uuid);
+
+    /**
+     * Stream rows into a temporary table with {@code COPY} and upsert them into names by uuid.
+     * When a uuid appears more than once, its last row wins; rows that would not change a
+     * name are skipped. The temporary table is dropped on commit, so each call needs its own
+     * transaction.
+     *
+     * @param csvRows CSV lines of record number, uuid, first name and last name
+     * @param now the creation time of inserted names
+     * @return the inserted and updated names; previous names are null for inserted ones
+     */
+    List<NameUpdate> upsertCopiedRows(Reader csvRows, LocalDateTime now);
+
+    /**
+     * Write names to the stream with {@code COPY ... TO STDOUT}, as CSV with a header row. Must
+     * run inside a transaction so the copy uses its connection.
+     *
+     * @param pattern the lower-cased LIKE pattern to filter on, or null for every name
+     * @param columnSort the order, using column names such as {@code first_name}
+     * @return the number of names written
+     */
+    long copyResponsesAsCsv(String pattern, Sort columnSort, OutputStream out);
+
+    /**
+     * Same as {@link #copyResponsesAsCsv} but writes one JSON object per line
+     */
+    long copyResponsesAsNdjson(String pattern, Sort columnSort, OutputStream out);
+
+    /**
+     * Names written before search keys were stored, in id order
+     *
+     * @param afterId only names with a greater id are returned
+     */
+    List<Name> findWithoutSearchKeys(long afterId, int limit);
+
+    /**
+     * Store the search keys of the names, as computed when they were loaded. Names renamed since
+     * then are left alone.
+     *
+     * @return the number of names updated
+     */
+    int updateSearchKeys(List<Name> names);
+
+    /**
+     * Count names per first name, last name and hour of creation in a single pass over the table
+     */
+    NameAggregates aggregateCounts();
+
+    /**
+     * Number of names created in each hour or day of a time range, oldest first. Buckets without
+     * names are left out.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @param unit {@link ChronoUnit#HOURS} or {@link ChronoUnit#DAYS}
+     */
+    List<NameCreatedBucketDTO> countCreatedBetween(LocalDateTime from, LocalDateTime to,
+            ChronoUnit unit);
+}
@@ -0,0 +1,484 @@
+package com.example.namecollection.repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.postgresql.PGConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.example.namecollection.dto.NameCreatedBucketDTO;
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.search.NameKeys;
+
+import jakarta.persistence.EntityManager;
+
+public class NameRepositoryImpl implements NameRepositoryCustom {
+
+    /**
+     * The sub-select locks the row and reads the names being replaced, so the update, its
+     * result and the previous values come back in one round trip. updated_at takes the clock
+     * time once the row is locked (not the transaction start), and always moves forward.
+     */
+    static final String UPDATE_RETURNING_SQL = """
+            UPDATE names n SET first_name = :firstName, last_name = :lastName,
+                first_name_folded = :firstNameFolded, last_name_folded = :lastNameFolded,
+                first_name_phonetic = :firstNamePhonetic, last_name_phonetic = :lastNamePhonetic,
+                updated_at = GREATEST(CAST(clock_timestamp() AS TIMESTAMP),
+                    old.updated_at + INTERVAL '1 microsecond')
+            FROM (SELECT id, first_name, last_name, updated_at FROM names
+                WHERE uuid = :uuid FOR UPDATE) old
+            WHERE n.id = old.id
+            RETURNING n.id, n.uuid, n.first_name, n.last_name, n.created_at, n.updated_at,
+                old.first_name AS previous_first_name, old.last_name AS previous_last_name""";
+
+    static final String DELETE_RETURNING_SQL = """
+            DELETE FROM names WHERE uuid = :uuid
+            RETURNING id, uuid, first_name, last_name, created_at, updated_at""";
+
+    static final String CREATE_IMPORT_TABLE_SQL = """
+            CREATE TEMP TABLE names_import (record BIGINT NOT NULL, uuid VARCHAR(36) NOT NULL,
+                first_name VARCHAR(100) NOT NULL, last_name VARCHAR(100) NOT NULL,
+                first_name_folded VARCHAR(100), last_name_folded VARCHAR(100),
+                first_name_phonetic VARCHAR(16), last_name_phonetic VARCHAR(16))
+            ON COMMIT DROP""";
+
+    static final String COPY_IMPORT_SQL = "COPY names_import (record, uuid, first_name, "
+            + "last_name, first_name_folded, last_name_folded, first_name_phonetic, "
+            + "last_name_phonetic) FROM STDIN (FORMAT csv)";
+
+    /**
+     * Every CTE reads the same snapshot, so {@code previous} holds the names as they were
+     * before the insert. Ids of new names are allocated like Hibernate's pooled optimizer: one
+     * nextval per 50 names, a value v handing out v - 49 to v, so imported ids are dense. The
+     * sequence's first value, 1, does not start a block, as Hibernate also reads past it. Names
+     * that already exist keep their id and take the update path.
+     */
+    static final String UPSERT_IMPORTED_SQL = """
+            WITH latest AS (
+                SELECT DISTINCT ON (uuid) * FROM names_import ORDER BY uuid, record DESC),
+            previous AS (
+                SELECT n.id, n.uuid, n.first_name, n.last_name FROM names n
+                JOIN latest l ON l.uuid = n.uuid),
+            fresh AS (
+                SELECT l.uuid, row_number() OVER (ORDER BY l.record) - 1 AS position
+                FROM latest l LEFT JOIN previous p ON p.uuid = l.uuid
+                WHERE p.uuid IS NULL),
+            drawn AS (
+                SELECT start, nextval('names_id_seq') AS hi
+                FROM generate_series(0, (SELECT count(*) FROM fresh) - 1, 50) start),
+            blocks AS (
+                SELECT start, CASE WHEN hi < 50 THEN nextval('names_id_seq') ELSE hi END AS hi
+                FROM drawn),
+            ids AS (
+                SELECT f.uuid, b.hi - 49 + f.position - b.start AS id
+                FROM fresh f JOIN blocks b ON b.start = f.position / 50 * 50),
+            upserted AS (
+                INSERT INTO names AS n (id, uuid, first_name, last_name, first_name_folded,
+                    last_name_folded, first_name_phonetic, last_name_phonetic, created_at,
+                    updated_at)
+                SELECT COALESCE(i.id, p.id), l.uuid, l.first_name, l.last_name,
+                    l.first_name_folded, l.last_name_folded, l.first_name_phonetic,
+                    l.last_name_phonetic, CAST(:now AS TIMESTAMP), CAST(:now AS TIMESTAMP)
+                FROM latest l LEFT JOIN ids i ON i.uuid = l.uuid
+                LEFT JOIN previous p ON p.uuid = l.uuid
+                ON CONFLICT (uuid) DO UPDATE SET first_name = EXCLUDED.first_name,
+                    last_name = EXCLUDED.last_name,
+                    first_name_folded = EXCLUDED.first_name_folded,
+                    last_name_folded = EXCLUDED.last_name_folded,
+                    first_name_phonetic = EXCLUDED.first_name_phonetic,
+                    last_name_phonetic = EXCLUDED.last_name_phonetic,
+                    updated_at = GREATEST(CAST(clock_timestamp() AS TIMESTAMP),
+                        n.updated_at + INTERVAL '1 microsecond')
+                WHERE (n.first_name, n.last_name)
+                    IS DISTINCT FROM (EXCLUDED.first_name, EXCLUDED.last_name)
+                RETURNING n.id, n.uuid, n.first_name, n.last_name, n.created_at, n.updated_at)
+            SELECT u.id, u.uuid, u.first_name, u.last_name, u.created_at, u.updated_at,
+                p.first_name AS previous_first_name, p.last_name AS previous_last_name
+            FROM upserted u LEFT JOIN previous p ON p.uuid = u.uuid""";
+
+    // Aliased to the DTO's property names, so an export can be imported again as it is
+    private static final String EXPORT_CSV_COLUMNS = "n.uuid, n.first_name AS \"firstName\", "
+            + "n.last_name AS \"lastName\", n.created_at AS \"createdAt\", "
+            + "n.updated_at AS \"updatedAt\"";
+
+    private static final String EXPORT_JSON_COLUMN = "json_build_object('uuid', n.uuid, "
+            + "'firstName', n.first_name, 'lastName', n.last_name, 'createdAt', n.created_at, "
+            + "'updatedAt', n.updated_at)";
+
+    private static final String COPY_CSV_OPTIONS = " TO STDOUT (FORMAT csv, HEADER)";
+
+    // A quote and delimiter that never occur in JSON text, so each object is written verbatim
+    private static final String COPY_JSON_LINES_OPTIONS =
+            " TO STDOUT (FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02')";
+
+    private static final String FIND_BY_IDS_SQL = "SELECT id, uuid, first_name, last_name, "
+            + "created_at, updated_at FROM names WHERE id IN (:ids)";
+
+    // Exact matches, then the most similar names, survive the limit; the window count is taken
+    // before it
+    private static final String CANDIDATES_SQL = """
+            SELECT n.id, n.uuid, n.first_name, n.last_name, n.created_at, n.updated_at,
+                count(*) OVER () AS candidates
+            FROM names n JOIN (%s) c ON c.id = n.id
+            ORDER BY (n.first_name_folded = :term OR n.last_name_folded = :term) DESC,
+                GREATEST(similarity(n.first_name_folded, :term),
+                    similarity(n.last_name_folded, :term)) DESC,
+                n.id
+            LIMIT :limit""";
+
+    private static final String PHONETIC_CANDIDATES_SQL = """
+            SELECT id FROM names WHERE first_name_phonetic IN (:codes)
+            UNION SELECT id FROM names WHERE last_name_phonetic IN (:codes)""";
+
+    // % is the pg_trgm similarity operator, served by the trigram indexes on the folded names
+    private static final String SIMILAR_CANDIDATES_SQL = """
+            SELECT id FROM names WHERE first_name_folded % :term
+            UNION SELECT id FROM names WHERE last_name_folded % :term""";
+
+    private static final String WITHOUT_SEARCH_KEYS_SQL = "SELECT id, uuid, first_name, "
+            + "last_name, created_at, updated_at FROM names WHERE first_name_phonetic IS NULL "
+            + "AND id > :afterId ORDER BY id LIMIT :limit";
+
+    private static final String UPDATE_SEARCH_KEYS_SQL = """
+            UPDATE names SET first_name_folded = :firstNameFolded,
+                last_name_folded = :lastNameFolded, first_name_phonetic = :firstNamePhonetic,
+                last_name_phonetic = :lastNamePhonetic
+            WHERE id = :id AND first_name = :firstName AND last_name = :lastName""";
+
+    // One scan feeding three hash aggregates; GROUPING tells which set a row belongs to. Names
+    // from before created_at had a default have no hour and are left out of the hourly counts.
+    private static final String AGGREGATE_COUNTS_SQL = """
+            SELECT first_name, last_name, date_trunc('hour', created_at) AS created_hour,
+                GROUPING(first_name, last_name) AS grouping_set, count(*) AS names
+            FROM names
+            GROUP BY GROUPING SETS ((first_name), (last_name), (date_trunc('hour', created_at)))
+            HAVING GROUPING(first_name, last_name) < 3
+                OR date_trunc('hour', created_at) IS NOT NULL""";
+
+    // The range condition is served by the BRIN index on created_at
+    private static final String COUNT_CREATED_BETWEEN_SQL = """
+            SELECT date_trunc('%s', created_at) AS bucket, count(*) AS names
+            FROM names
+            WHERE created_at >= :from AND created_at < :to
+            GROUP BY bucket ORDER BY bucket""";
+
+    private static final String KEYSET_SELECT = "SELECT n.id, n.uuid, n.first_name, "
+            + "n.last_name, n.created_at, n.updated_at FROM names n";
+
+    // Sort columns without a NOT NULL constraint, whose seek needs IS NULL branches
+    private static final Set<String> NULLABLE_SORT_COLUMNS = Set.of("created_at");
+
+    private static final RowMapper<NameResponseDTO> RESPONSE_MAPPER =
+            (rs, rowNum) -> new NameResponseDTO(rs.getString("uuid"), rs.getString("first_name"),
+                    rs.getString("last_name"), rs.getObject("created_at", LocalDateTime.class),
+                    rs.getObject("updated_at", LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public NameRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate,
+            EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<NameResponseDTO> searchResponsesByTerm(String pattern, Sort columnSort,
+            long offset, int limit) {
+        flushPendingWrites();
+        String sql = NameRepository.SEARCH_BY_TERM_QUERY + orderBy(columnSort)
+                + " LIMIT :limit OFFSET :offset";
+        return jdbcTemplate.query(sql,
+                Map.of("pattern", pattern, "limit", limit, "offset", offset), RESPONSE_MAPPER);
+    }
+
+    @Override
+    public List<NameKeysetRow> searchResponsesAfter(String pattern, Sort.Order columnOrder,
+            Object afterKey, Long afterId, int limit) {
+        flushPendingWrites();
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit)
+                .addValue("pattern", pattern)
+                .addValue("afterKey", afterKey)
+                .addValue("afterId", afterId);
+        StringBuilder sql = new StringBuilder(KEYSET_SELECT);
+        if (pattern != null) {
+            sql.append(NameRepository.SEARCH_BY_TERM_FILTER);
+        }
+        if (afterId != null) {
+            sql.append(pattern != null ? " AND " : " WHERE ")
+                    .append(seekPredicate(columnOrder, afterKey));
+        }
+        Sort columnSort = "id".equals(columnOrder.getProperty()) ? Sort.by(columnOrder)
+                : Sort.by(columnOrder, columnOrder.withProperty("id"));
+        sql.append(orderBy(columnSort)).append(" LIMIT :limit");
+        return jdbcTemplate.query(sql.toString(), params,
+                (rs, rowNum) -> new NameKeysetRow(rs.getLong("id"),
+                        RESPONSE_MAPPER.mapRow(rs, rowNum)));
+    }
+
+    @Override
+    public List<NameResponseDTO> findResponsesByIds(long[] ids) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        flushPendingWrites();
+        Map<Long, NameResponseDTO> rowsById = new HashMap<>(ids.length * 2);
+        jdbcTemplate.query(FIND_BY_IDS_SQL,
+                Map.of("ids", Arrays.stream(ids).boxed().toList()),
+                (RowCallbackHandler) rs -> rowsById.put(rs.getLong("id"),
+                        RESPONSE_MAPPER.mapRow(rs, 0)));
+
+        List<NameResponseDTO> ordered = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            NameResponseDTO row = rowsById.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    @Override
+    public NameCandidates findSearchCandidates(Collection<String> codes, String foldedTerm,
+            boolean similar, int limit) {
+        List<String> lookups = new ArrayList<>(2);
+        if (!codes.isEmpty()) {
+            lookups.add(PHONETIC_CANDIDATES_SQL);
+        }
+        if (similar && !foldedTerm.isEmpty()) {
+            lookups.add(SIMILAR_CANDIDATES_SQL);
+        }
+        if (lookups.isEmpty()) {
+            return new NameCandidates(List.of(), 0);
+        }
+
+        flushPendingWrites();
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit)
+                .addValue("codes", codes)
+                .addValue("term", foldedTerm);
+        long[] total = {0};
+        List<NameResponseDTO> names = jdbcTemplate.query(
+                String.format(CANDIDATES_SQL, String.join(" UNION ", lookups)), params,
+                (rs, rowNum) -> {
+                    total[0] = rs.getLong("candidates");
+                    return RESPONSE_MAPPER.mapRow(rs, rowNum);
+                });
+        return new NameCandidates(names, total[0]);
+    }
+
+    @Override
+    public Optional<NameUpdate> updateByUuidReturning(String uuid, String firstName,
+            String lastName) {
+        List<NameUpdate> updated = jdbcTemplate.query(UPDATE_RETURNING_SQL,
+                Map.of("uuid", uuid, "firstName", firstName, "lastName", lastName,
+                        "firstNameFolded", NameKeys.fold(firstName),
+                        "lastNameFolded", NameKeys.fold(lastName),
+                        "firstNamePhonetic", NameKeys.phonetic(firstName),
+                        "lastNamePhonetic", NameKeys.phonetic(lastName)),
+                (rs, rowNum) -> new NameUpdate(mapName(rs), rs.getString("previous_first_name"),
+                        rs.getString("previous_last_name")));
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public Optional<Name> deleteByUuidReturning(String uuid) {
+        List<Name> deleted = jdbcTemplate.query(DELETE_RETURNING_SQL, Map.of("uuid", uuid),
+                (rs, rowNum) -> mapName(rs));
+        return deleted.stream().findFirst();
+    }
+
+    @Override
+    public List<NameUpdate> upsertCopiedRows(Reader csvRows, LocalDateTime now) {
+        jdbcTemplate.getJdbcOperations().execute(CREATE_IMPORT_TABLE_SQL);
+        jdbcTemplate.getJdbcOperations().execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_IMPORT_SQL, csvRows);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return jdbcTemplate.query(UPSERT_IMPORTED_SQL, Map.of("now", now),
+                (rs, rowNum) -> new NameUpdate(mapName(rs), rs.getString("previous_first_name"),
+                        rs.getString("previous_last_name")));
+    }
+
+    @Override
+    public long copyResponsesAsCsv(String pattern, Sort columnSort, OutputStream out) {
+        return copyOut(EXPORT_CSV_COLUMNS, pattern, columnSort, COPY_CSV_OPTIONS, out);
+    }
+
+    @Override
+    public long copyResponsesAsNdjson(String pattern, Sort columnSort, OutputStream out) {
+        return copyOut(EXPORT_JSON_COLUMN, pattern, columnSort, COPY_JSON_LINES_OPTIONS, out);
+    }
+
+    @Override
+    public List<Name> findWithoutSearchKeys(long afterId, int limit) {
+        return jdbcTemplate.query(WITHOUT_SEARCH_KEYS_SQL,
+                Map.of("afterId", afterId, "limit", limit), (rs, rowNum) -> mapName(rs));
+    }
+
+    @Override
+    public int updateSearchKeys(List<Name> names) {
+        SqlParameterSource[] batch = names.stream()
+                .map(name -> new MapSqlParameterSource("id", name.getId())
+                        // Skip names renamed since they were read; the rename set their keys
+                        .addValue("firstName", name.getFirstName())
+                        .addValue("lastName", name.getLastName())
+                        .addValue("firstNameFolded", name.getFirstNameFolded())
+                        .addValue("lastNameFolded", name.getLastNameFolded())
+                        .addValue("firstNamePhonetic", name.getFirstNamePhonetic())
+                        .addValue("lastNamePhonetic", name.getLastNamePhonetic()))
+                .toArray(SqlParameterSource[]::new);
+        return Arrays.stream(jdbcTemplate.batchUpdate(UPDATE_SEARCH_KEYS_SQL, batch)).sum();
+    }
+
+    @Override
+    public NameAggregates aggregateCounts() {
+        Map<String, Long> firstNames = new HashMap<>();
+        Map<String, Long> lastNames = new HashMap<>();
+        Map<LocalDateTime, Long> createdPerHour = new HashMap<>();
+        jdbcTemplate.getJdbcOperations().query(AGGREGATE_COUNTS_SQL, (RowCallbackHandler) rs -> {
+            long names = rs.getLong("names");
+            switch (rs.getInt("grouping_set")) {
+                case 1 -> firstNames.put(rs.getString("first_name"), names);
+                case 2 -> lastNames.put(rs.getString("last_name"), names);
+                default -> createdPerHour.put(
+                        rs.getObject("created_hour", LocalDateTime.class), names);
+            }
+        });
+        return new NameAggregates(firstNames, lastNames, createdPerHour);
+    }
+
+    @Override
+    public List<NameCreatedBucketDTO> countCreatedBetween(LocalDateTime from, LocalDateTime to,
+            ChronoUnit unit) {
+        String field = switch (unit) {
+            case HOURS -> "hour";
+            case DAYS -> "day";
+            default -> throw new IllegalArgumentException("Unsupported bucket unit: " + unit);
+        };
+        return jdbcTemplate.query(COUNT_CREATED_BETWEEN_SQL.formatted(field),
+                Map.of("from", from, "to", to),
+                (rs, rowNum) -> new NameCreatedBucketDTO(
+                        rs.getObject("bucket", LocalDateTime.class), rs.getLong("names")));
+    }
+
+    /**
+     * Plain JDBC bypasses Hibernate's auto-flush, so entities saved earlier in the transaction
+     * are written out first; otherwise the query would not see them.
+     */
+    private void flushPendingWrites() {
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+    }
+
+    private long copyOut(String columns, String pattern, Sort columnSort, String options,
+            OutputStream out) {
+        Long copied = jdbcTemplate.getJdbcOperations().execute(
+                (ConnectionCallback<Long>) connection -> {
+                    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                    String filter = pattern == null ? ""
+                            : inlinePattern(pgConnection, NameRepository.SEARCH_BY_TERM_FILTER,
+                                    pattern);
+                    String sql = "COPY (SELECT " + columns + " FROM names n" + filter
+                            + orderBy(columnSort) + ")" + options;
+                    try {
+                        return pgConnection.getCopyAPI().copyOut(sql, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return copied == null ? 0 : copied;
+    }
+
+    /**
+     * COPY takes no bind parameters, so the pattern is inlined as a string literal, quoted by
+     * the driver for the connection's standard_conforming_strings setting. This is the only
+     * value inlined into SQL.
+     */
+    private static String inlinePattern(PGConnection connection, String sql, String pattern)
+            throws SQLException {
+        return sql.replace(":pattern", "'" + connection.escapeLiteral(pattern) + "'");
+    }
+
+    /**
+     * The rows after (key, id) in the order of the column. A row comparison leaves out NULL
+     * keys, so they are matched explicitly: NULLs come after every key ascending and before
+     * every key descending.
+     */
+    private static String seekPredicate(Sort.Order columnOrder, Object afterKey) {
+        String column = "n." + sortColumn(columnOrder);
+        String comparison = columnOrder.isAscending() ? " > " : " < ";
+        if ("n.id".equals(column)) {
+            return "n.id" + comparison + ":afterId";
+        }
+
+        String rowSeek = "(" + column + ", n.id)" + comparison + "(:afterKey, :afterId)";
+        if (!NULLABLE_SORT_COLUMNS.contains(columnOrder.getProperty())) {
+            return rowSeek;
+        }
+        if (afterKey != null) {
+            return columnOrder.isAscending() ? "(" + rowSeek + " OR " + column + " IS NULL)"
+                    : rowSeek;
+        }
+        return columnOrder.isAscending()
+                ? "(" + column + " IS NULL AND n.id > :afterId)"
+                : "(" + column + " IS NOT NULL OR n.id < :afterId)";
+    }
+
+    // Column names are concatenated into the SQL, so only plain identifiers are accepted
+    private static String sortColumn(Sort.Order order) {
+        if (!order.getProperty().matches("[a-z_]+")) {
+            throw new IllegalArgumentException("Invalid sort column: " + order.getProperty());
+        }
+        return order.getProperty();
+    }
+
+    private static String orderBy(Sort columnSort) {
+        if (columnSort.isUnsorted()) {
+            return "";
+        }
+
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        for (Sort.Order order : columnSort) {
+            if (orderBy.length() > " ORDER BY ".length()) {
+                orderBy.append(", ");
+            }
+            // NULL placement spelled out as Postgres defaults it, so H2 orders the same way
+            orderBy.append("n.").append(sortColumn(order)).append(' ')
+                    .append(order.isAscending() ? "ASC NULLS LAST" : "DESC NULLS FIRST");
+        }
+        return orderBy.toString();
+    }
+
+    private static Name mapName(ResultSet rs) throws SQLException {
+        return new Name(rs.getLong("id"), rs.getString("uuid"), rs.getString("first_name"),
+                rs.getString("last_name"), rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.namecollection.repository;
+
+import com.example.namecollection.model.Name;
+
+/**
+ * A name as written by an update, together with the names it replaced. Names inserted by an
+ * upsert have no previous names.
+ */
+public record NameUpdate(Name name, String previousFirstName, String previousLastName) {
+}
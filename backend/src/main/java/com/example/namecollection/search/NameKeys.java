@@ -0,0 +1,105 @@
+package com.example.namecollection.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+/**
+ * Search keys derived from a name: a folded form (trimmed, lower-cased, accents removed) and a
+ * Double Metaphone code, so names that sound alike ("Jonson", "Johnson") share a key. The keys
+ * are stored next to each name and indexed, so phonetic and fuzzy search look up candidates by
+ * key instead of comparing every row.
+ */
+public final class NameKeys {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[\\s-]+");
+    // Stateless once configured, so one instance is shared
+    private static final DoubleMetaphone DOUBLE_METAPHONE = new DoubleMetaphone();
+
+    private NameKeys() {
+    }
+
+    /**
+     * The name trimmed, lower-cased and stripped of accents
+     */
+    public static String fold(String name) {
+        if (name == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The primary Double Metaphone code of the name, or an empty string for a name without
+     * letters to encode
+     */
+    public static String phonetic(String name) {
+        String code = DOUBLE_METAPHONE.doubleMetaphone(fold(name));
+        return code == null ? "" : code;
+    }
+
+    /**
+     * The codes a search term can match: the primary and alternate codes of the whole term and
+     * of each of its words
+     */
+    public static Set<String> phoneticCodes(String term) {
+        Set<String> codes = new LinkedHashSet<>();
+        String folded = fold(term);
+        addCodes(codes, folded);
+        for (String word : WORD_SEPARATORS.split(folded)) {
+            addCodes(codes, word);
+        }
+        return codes;
+    }
+
+    /**
+     * The Levenshtein distance between two strings, giving up once it exceeds the limit
+     *
+     * @return the distance, or {@code limit + 1} if it is larger than the limit
+     */
+    public static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1),
+                        previous[j - 1] + substitution);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+
+    private static void addCodes(Set<String> codes, String value) {
+        if (value.isEmpty()) {
+            return;
+        }
+        for (boolean alternate : new boolean[] {false, true}) {
+            String code = DOUBLE_METAPHONE.doubleMetaphone(value, alternate);
+            if (code != null && !code.isEmpty()) {
+                codes.add(code);
+            }
+        }
+    }
+}
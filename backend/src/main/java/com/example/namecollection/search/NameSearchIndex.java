@@ -0,0 +1,554 @@
+package com.example.namecollection.search;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.event.NamesImportedEvent;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameRepository;
+
+/**
+ * Memory-resident trigram index over first and last names.
+ *
+ * <p>
+ * When enabled with {@code names.search.in-memory.enabled}, the index is loaded from the
+ * database once the application is ready and kept up to date from {@link NameChangedEvent}s.
+ * Those only cover this instance's writes, so the index is also rebuilt every
+ * {@code names.search.in-memory.rebuild-interval} to pick up the writes of other instances.
+ * It answers which ids match a search term and in which order, so the database only has to
+ * fetch the rows of a single page by id. String sort order follows {@link String#compareTo},
+ * which can differ from the database collation for mixed-case names.
+ */
+@Component
+public class NameSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(NameSearchIndex.class);
+
+    private static final int GRAM_SIZE = 3;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final NameRepository nameRepository;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Changes applied while a rebuild is reading from the database, replayed onto the new data
+    private final List<NameChangedEvent> changesDuringRebuild = new ArrayList<>();
+    private final LongAdder searchCount = new LongAdder();
+    private final LongAdder rebuildCount = new LongAdder();
+
+    private IndexData data = new IndexData();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public NameSearchIndex(NameRepository nameRepository,
+            @Value("${names.search.in-memory.enabled:false}") boolean enabled) {
+        this.nameRepository = nameRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether the index has been loaded and can answer searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of searches answered by the index
+     */
+    public long searchCount() {
+        return searchCount.sum();
+    }
+
+    /**
+     * Number of completed rebuilds from the database
+     */
+    public long rebuildCount() {
+        return rebuildCount.sum();
+    }
+
+    /**
+     * Number of live names held by the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reload the index so it picks up writes no event told this instance about
+     */
+    @Scheduled(fixedDelayString = "${names.search.in-memory.rebuild-interval:5m}",
+            initialDelayString = "${names.search.in-memory.rebuild-interval:5m}")
+    public void rebuildPeriodically() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Load every name from the database into a fresh index and swap it in
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            changesDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData fresh = new IndexData();
+        try {
+            long lastId = 0;
+            List<Name> batch;
+            do {
+                batch = nameRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                        Limit.of(LOAD_BATCH_SIZE));
+                for (Name name : batch) {
+                    fresh.upsert(name.getId(), name.getUuid(), name.getFirstName(),
+                            name.getLastName(), name.getCreatedAt());
+                    lastId = name.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                changesDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(fresh::apply);
+            changesDuringRebuild.clear();
+            data = fresh;
+            rebuilding = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuildCount.increment();
+        logger.info("Loaded in-memory name search index with {} names", fresh.liveCount);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNameChanged(NameChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            data.apply(event);
+            if (rebuilding) {
+                changesDuringRebuild.add(event);
+            }
+            if (data.needsCompaction()) {
+                data = data.compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applies a whole import chunk under one lock acquisition
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNamesImported(NamesImportedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (NameChangedEvent change : event.changes()) {
+                data.apply(change);
+                if (rebuilding) {
+                    changesDuringRebuild.add(change);
+                }
+            }
+            if (data.needsCompaction()) {
+                data = data.compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the ids of the names whose first or last name contains the search term, ordered by
+     * the given sort field with id as a tiebreaker.
+     *
+     * @param searchTerm the substring to match, or blank to match every name
+     * @param sortBy one of {@code id}, {@code firstName}, {@code lastName}, {@code createdAt}
+     * @param ascending the sort direction
+     * @param offset the number of matches to skip
+     * @param limit the maximum number of ids to return
+     * @return the ids of the requested page and the total number of matches
+     */
+    public SearchResult search(String searchTerm, String sortBy, boolean ascending, long offset,
+            int limit) {
+        String term = searchTerm == null ? "" : fold(searchTerm.trim());
+        searchCount.increment();
+
+        lock.readLock().lock();
+        try {
+            return data.search(term, sortBy, ascending, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String fold(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    public record SearchResult(long[] ids, long total) {
+    }
+
+    @FunctionalInterface
+    private interface IntComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Growable, ascending list of ordinals. Ordinals are only ever appended in increasing order,
+     * so the list stays sorted without any extra work.
+     */
+    private static final class PostingList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            // A gram repeated within one name maps to the same, most recently added ordinal
+            if (size > 0 && values[size - 1] == ordinal) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        int[] retainAll(int[] sortedOrdinals) {
+            int[] result = new int[sortedOrdinals.length];
+            int count = 0;
+            for (int ordinal : sortedOrdinals) {
+                if (Arrays.binarySearch(values, 0, size, ordinal) >= 0) {
+                    result[count++] = ordinal;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+
+    /**
+     * Column-oriented document store plus trigram postings. Documents are addressed by a dense
+     * ordinal; updates append a new ordinal and tombstone the old one, which keeps every posting
+     * list sorted. Tombstones are dropped by {@link #compact()}.
+     */
+    private static final class IndexData {
+        private static final int[] NO_MATCHES = new int[0];
+
+        private long[] ids = new long[1024];
+        private String[] uuids = new String[1024];
+        private String[] firstNames = new String[1024];
+        private String[] lastNames = new String[1024];
+        private String[] foldedFirstNames = new String[1024];
+        private String[] foldedLastNames = new String[1024];
+        private long[] createdAt = new long[1024];
+        private final BitSet live = new BitSet();
+        private final Map<String, Integer> ordinalsByUuid = new HashMap<>();
+        private final Map<String, PostingList> firstNameGrams = new HashMap<>();
+        private final Map<String, PostingList> lastNameGrams = new HashMap<>();
+        private int size;
+        private int liveCount;
+
+        void apply(NameChangedEvent event) {
+            switch (event.type()) {
+                case CREATED, UPDATED -> upsert(event.id(), event.uuid(), event.firstName(),
+                        event.lastName(), event.createdAt());
+                case DELETED -> remove(event.uuid());
+            }
+        }
+
+        void upsert(long id, String uuid, String firstName, String lastName,
+                LocalDateTime created) {
+            remove(uuid);
+            ensureCapacity(size + 1);
+
+            int ordinal = size++;
+            ids[ordinal] = id;
+            uuids[ordinal] = uuid;
+            firstNames[ordinal] = firstName;
+            lastNames[ordinal] = lastName;
+            foldedFirstNames[ordinal] = fold(firstName);
+            foldedLastNames[ordinal] = fold(lastName);
+            createdAt[ordinal] = created == null ? Long.MIN_VALUE : toSortKey(created);
+            live.set(ordinal);
+            liveCount++;
+            ordinalsByUuid.put(uuid, ordinal);
+
+            addGrams(firstNameGrams, foldedFirstNames[ordinal], ordinal);
+            addGrams(lastNameGrams, foldedLastNames[ordinal], ordinal);
+        }
+
+        void remove(String uuid) {
+            Integer ordinal = ordinalsByUuid.remove(uuid);
+            if (ordinal != null) {
+                live.clear(ordinal);
+                liveCount--;
+            }
+        }
+
+        boolean needsCompaction() {
+            int dead = size - liveCount;
+            return dead > 1024 && dead > liveCount;
+        }
+
+        IndexData compact() {
+            IndexData compacted = new IndexData();
+            for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal =
+                    live.nextSetBit(ordinal + 1)) {
+                compacted.upsert(ids[ordinal], uuids[ordinal], firstNames[ordinal],
+                        lastNames[ordinal], null);
+                compacted.createdAt[compacted.size - 1] = createdAt[ordinal];
+            }
+            return compacted;
+        }
+
+        SearchResult search(String term, String sortBy, boolean ascending, long offset,
+                int limit) {
+            int[] matches = match(term);
+            int end = (int) Math.min(matches.length, offset + limit);
+            if (offset >= end) {
+                return new SearchResult(new long[0], matches.length);
+            }
+
+            IntComparator comparator = comparator(sortBy);
+            if (!ascending) {
+                IntComparator ascendingComparator = comparator;
+                comparator = (a, b) -> ascendingComparator.compare(b, a);
+            }
+            int[] ordered = smallest(matches, end, comparator);
+
+            long[] pageIds = new long[end - (int) offset];
+            for (int i = 0; i < pageIds.length; i++) {
+                pageIds[i] = ids[ordered[(int) offset + i]];
+            }
+            return new SearchResult(pageIds, matches.length);
+        }
+
+        private int[] match(String term) {
+            if (term.isEmpty()) {
+                return live.stream().toArray();
+            }
+            if (term.length() < GRAM_SIZE) {
+                return verify(live.stream().toArray(), term);
+            }
+
+            int[] candidates = union(candidates(firstNameGrams, term),
+                    candidates(lastNameGrams, term));
+            // Sharing every trigram does not guarantee the term occurs contiguously
+            return verify(candidates, term);
+        }
+
+        private int[] candidates(Map<String, PostingList> grams, String term) {
+            List<PostingList> lists = new ArrayList<>();
+            for (int i = 0; i + GRAM_SIZE <= term.length(); i++) {
+                PostingList list = grams.get(term.substring(i, i + GRAM_SIZE));
+                if (list == null) {
+                    return NO_MATCHES;
+                }
+                lists.add(list);
+            }
+
+            // Intersect starting from the rarest gram to keep the working set small
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            int[] result = lists.get(0).toArray();
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = lists.get(i).retainAll(result);
+            }
+            return result;
+        }
+
+        private int[] verify(int[] ordinals, String term) {
+            int[] result = new int[ordinals.length];
+            int count = 0;
+            for (int ordinal : ordinals) {
+                if (live.get(ordinal) && (foldedFirstNames[ordinal].contains(term)
+                        || foldedLastNames[ordinal].contains(term))) {
+                    result[count++] = ordinal;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private IntComparator comparator(String sortBy) {
+            IntComparator byId = (a, b) -> Long.compare(ids[a], ids[b]);
+            IntComparator byField = switch (sortBy) {
+                case "firstName" -> (a, b) -> firstNames[a].compareTo(firstNames[b]);
+                case "lastName" -> (a, b) -> lastNames[a].compareTo(lastNames[b]);
+                case "createdAt" -> (a, b) -> Long.compare(createdAt[a], createdAt[b]);
+                default -> byId;
+            };
+            return (a, b) -> {
+                int result = byField.compare(a, b);
+                return result != 0 ? result : byId.compare(a, b);
+            };
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int newLength = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, newLength);
+            uuids = Arrays.copyOf(uuids, newLength);
+            firstNames = Arrays.copyOf(firstNames, newLength);
+            lastNames = Arrays.copyOf(lastNames, newLength);
+            foldedFirstNames = Arrays.copyOf(foldedFirstNames, newLength);
+            foldedLastNames = Arrays.copyOf(foldedLastNames, newLength);
+            createdAt = Arrays.copyOf(createdAt, newLength);
+        }
+
+        private static void addGrams(Map<String, PostingList> grams, String value, int ordinal) {
+            for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+                grams.computeIfAbsent(value.substring(i, i + GRAM_SIZE), gram -> new PostingList())
+                        .add(ordinal);
+            }
+        }
+
+        private static long toSortKey(LocalDateTime dateTime) {
+            return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+        }
+
+        private static int[] union(int[] a, int[] b) {
+            int[] result = new int[a.length + b.length];
+            int i = 0, j = 0, count = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    result[count++] = a[i++];
+                } else if (a[i] > b[j]) {
+                    result[count++] = b[j++];
+                } else {
+                    result[count++] = a[i++];
+                    j++;
+                }
+            }
+            while (i < a.length) {
+                result[count++] = a[i++];
+            }
+            while (j < b.length) {
+                result[count++] = b[j++];
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        /**
+         * Return the {@code k} smallest ordinals in sorted order using a bounded max-heap, so a
+         * single page costs O(n log k) instead of a full sort.
+         */
+        private static int[] smallest(int[] ordinals, int k, IntComparator comparator) {
+            int[] heap = new int[k];
+            int heapSize = 0;
+            for (int ordinal : ordinals) {
+                if (heapSize < k) {
+                    heap[heapSize] = ordinal;
+                    siftUp(heap, heapSize++, comparator);
+                } else if (comparator.compare(ordinal, heap[0]) < 0) {
+                    heap[0] = ordinal;
+                    siftDown(heap, heapSize, comparator);
+                }
+            }
+
+            int[] sorted = new int[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                sorted[i] = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, comparator);
+            }
+            return sorted;
+        }
+
+        private static void siftUp(int[] heap, int index, IntComparator comparator) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (comparator.compare(heap[index], heap[parent]) <= 0) {
+                    return;
+                }
+                swap(heap, index, parent);
+                index = parent;
+            }
+        }
+
+        private static void siftDown(int[] heap, int size, IntComparator comparator) {
+            int index = 0;
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && comparator.compare(heap[left], heap[largest]) > 0) {
+                    largest = left;
+                }
+                if (right < size && comparator.compare(heap[right], heap[largest]) > 0) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(heap, index, largest);
+                index = largest;
+            }
+        }
+
+        private static void swap(int[] heap, int i, int j) {
+            int tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
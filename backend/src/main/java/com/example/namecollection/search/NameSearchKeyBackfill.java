@@ -0,0 +1,113 @@
+package com.example.namecollection.search;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameRepository;
+
+/**
+ * Fills in the search keys of names written before they were stored (see {@link NameKeys}).
+ *
+ * <p>
+ * Once the application is ready, a background thread walks the names still missing keys in id
+ * order and hands each chunk to a small pool of writers. The pool's queue is bounded and a full
+ * queue makes the reader write the chunk itself, so at most a few chunks are held in memory.
+ * Names without keys are left out of phonetic and fuzzy results until the backfill reaches them.
+ */
+@Component
+public class NameSearchKeyBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(NameSearchKeyBackfill.class);
+
+    private final NameRepository nameRepository;
+    private final boolean enabled;
+    private final int threads;
+    private final int chunkSize;
+    private final LongAdder updated = new LongAdder();
+
+    public NameSearchKeyBackfill(NameRepository nameRepository,
+            @Value("${names.search.keys.backfill.enabled:true}") boolean enabled,
+            @Value("${names.search.keys.backfill.threads:2}") int threads,
+            @Value("${names.search.keys.backfill.chunk-size:1000}") int chunkSize) {
+        this.nameRepository = nameRepository;
+        this.enabled = enabled;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Number of names given search keys since startup
+     */
+    public long updatedCount() {
+        return updated.sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofPlatform().name("search-key-backfill").daemon().start(this::run);
+        }
+    }
+
+    /**
+     * Give every name missing search keys its keys, returning once all of them are written
+     */
+    public void run() {
+        AtomicInteger workerCount = new AtomicInteger();
+        ThreadPoolExecutor writers = new ThreadPoolExecutor(threads, threads, 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(threads),
+                runnable -> Thread.ofPlatform()
+                        .name("search-key-backfill-" + workerCount.getAndIncrement())
+                        .daemon().unstarted(runnable),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            long lastId = 0;
+            List<Name> chunk;
+            do {
+                chunk = nameRepository.findWithoutSearchKeys(lastId, chunkSize);
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1).getId();
+                    List<Name> names = chunk;
+                    writers.execute(() -> write(names));
+                }
+            } while (chunk.size() == chunkSize);
+        } catch (RuntimeException e) {
+            logger.error("Search key backfill stopped after {} names", updated.sum(), e);
+        } finally {
+            writers.shutdown();
+            awaitWriters(writers);
+        }
+        if (updated.sum() > 0) {
+            logger.info("Search key backfill gave {} names their keys", updated.sum());
+        }
+    }
+
+    private void write(List<Name> names) {
+        try {
+            // Keys were computed by the Name constructor when the rows were read
+            updated.add(nameRepository.updateSearchKeys(names));
+        } catch (RuntimeException e) {
+            // The rows keep their missing keys and are retried on the next startup
+            logger.warn("Failed to store search keys for {} names", names.size(), e);
+        }
+    }
+
+    private static void awaitWriters(ThreadPoolExecutor writers) {
+        try {
+            writers.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
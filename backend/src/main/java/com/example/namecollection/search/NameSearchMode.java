@@ -0,0 +1,31 @@
+package com.example.namecollection.search;
+
+import java.util.Locale;
+
+/**
+ * How a search term is matched against names
+ */
+public enum NameSearchMode {
+    /** Case-insensitive substring of the first or last name */
+    CONTAINS,
+    /** First or last name sounds like the term, ranked by edit distance */
+    PHONETIC,
+    /** Sounds like the term or is within a few edits of it, ranked by edit distance */
+    FUZZY;
+
+    /**
+     * The mode with the given name, ignoring case, or {@link #CONTAINS} if there is none
+     */
+    public static NameSearchMode from(String value) {
+        for (NameSearchMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        return CONTAINS;
+    }
+
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
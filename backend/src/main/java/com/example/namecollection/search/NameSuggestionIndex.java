@@ -0,0 +1,236 @@
+package com.example.namecollection.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.namecollection.dto.NameSuggestionDTO;
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.event.NamesImportedEvent;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameRepository;
+
+/**
+ * Type-ahead suggestions over the distinct first and last names, weighted by how many names use
+ * each one.
+ *
+ * <p>
+ * When enabled with {@code names.suggest.enabled}, the counts are loaded from the database once
+ * the application is ready and kept up to date from {@link NameChangedEvent}s. Lookups read an
+ * immutable {@link NameSuggestions} snapshot without locking; after writes, a new snapshot is
+ * built from the counts in the background and swapped in, so suggestions trail writes by up to
+ * {@code names.suggest.refresh-interval}. A write committed while the counts are being loaded
+ * may be counted twice until the next load; weights only rank suggestions, so this is tolerated.
+ */
+@Component
+public class NameSuggestionIndex {
+    private static final Logger logger = LoggerFactory.getLogger(NameSuggestionIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final NameRepository nameRepository;
+    private final boolean enabled;
+    // Serialises snapshot builds, so an older snapshot never replaces a newer one
+    private final Object rebuildLock = new Object();
+    private final LongAdder suggestCount = new LongAdder();
+    private final LongAdder rebuildCount = new LongAdder();
+
+    // Names using each first or last name, guarded by this
+    private final Map<String, Integer> counts = new HashMap<>();
+    // Changes committed while a load is reading from the database, replayed onto its counts
+    private final List<NameChangedEvent> changesDuringLoad = new ArrayList<>();
+    private boolean loading;
+    private boolean dirty;
+
+    private volatile NameSuggestions suggestions = NameSuggestions.EMPTY;
+    private volatile boolean ready;
+
+    public NameSuggestionIndex(NameRepository nameRepository,
+            @Value("${names.suggest.enabled:true}") boolean enabled) {
+        this.nameRepository = nameRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether the counts have been loaded and suggestions can be answered
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of distinct names in the current snapshot
+     */
+    public int size() {
+        return suggestions.size();
+    }
+
+    /**
+     * Approximate heap used by the current snapshot, in bytes
+     */
+    public long snapshotBytes() {
+        return suggestions.estimatedBytes();
+    }
+
+    /**
+     * Number of suggestion lookups answered
+     */
+    public long suggestCount() {
+        return suggestCount.sum();
+    }
+
+    /**
+     * Number of snapshots built
+     */
+    public long rebuildCount() {
+        return rebuildCount.sum();
+    }
+
+    /**
+     * The most used first and last names starting with the prefix, ignoring case and accents.
+     * Empty until the counts have been loaded.
+     */
+    public List<NameSuggestionDTO> suggest(String prefix, int limit) {
+        suggestCount.increment();
+        return suggestions.top(prefix, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Count every first and last name in the database and swap in a fresh snapshot
+     */
+    public void load() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                loading = true;
+                changesDuringLoad.clear();
+            }
+
+            Map<String, Integer> fresh = new HashMap<>();
+            try {
+                long lastId = 0;
+                List<Name> batch;
+                do {
+                    batch = nameRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                            Limit.of(LOAD_BATCH_SIZE));
+                    for (Name name : batch) {
+                        add(fresh, name.getFirstName(), 1);
+                        add(fresh, name.getLastName(), 1);
+                        lastId = name.getId();
+                    }
+                } while (batch.size() == LOAD_BATCH_SIZE);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    loading = false;
+                    changesDuringLoad.clear();
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                counts.clear();
+                counts.putAll(fresh);
+                changesDuringLoad.forEach(this::apply);
+                changesDuringLoad.clear();
+                loading = false;
+                dirty = false;
+                fresh = new HashMap<>(counts);
+            }
+            swapIn(fresh);
+            ready = true;
+            logger.info("Loaded name suggestions with {} distinct names", suggestions.size());
+        }
+    }
+
+    /**
+     * Build and swap in a new snapshot if names changed since the last one
+     */
+    @Scheduled(fixedDelayString = "${names.suggest.refresh-interval:1s}")
+    public void refresh() {
+        synchronized (rebuildLock) {
+            Map<String, Integer> current;
+            synchronized (this) {
+                if (!ready || !dirty) {
+                    return;
+                }
+                dirty = false;
+                current = new HashMap<>(counts);
+            }
+            swapIn(current);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onNameChanged(NameChangedEvent event) {
+        if (enabled) {
+            record(event);
+        }
+    }
+
+    // Applies a whole import chunk under one lock acquisition
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onNamesImported(NamesImportedEvent event) {
+        if (enabled) {
+            event.changes().forEach(this::record);
+        }
+    }
+
+    private void record(NameChangedEvent event) {
+        if (loading) {
+            changesDuringLoad.add(event);
+        } else {
+            apply(event);
+            dirty = true;
+        }
+    }
+
+    private void apply(NameChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> {
+                add(counts, event.firstName(), 1);
+                add(counts, event.lastName(), 1);
+            }
+            case UPDATED -> {
+                add(counts, event.previousFirstName(), -1);
+                add(counts, event.previousLastName(), -1);
+                add(counts, event.firstName(), 1);
+                add(counts, event.lastName(), 1);
+            }
+            case DELETED -> {
+                add(counts, event.firstName(), -1);
+                add(counts, event.lastName(), -1);
+            }
+        }
+    }
+
+    private void swapIn(Map<String, Integer> current) {
+        suggestions = NameSuggestions.build(current);
+        rebuildCount.increment();
+    }
+
+    private static void add(Map<String, Integer> counts, String value, int delta) {
+        if (value != null) {
+            // Values no longer used are dropped, so deleted names stop being suggested
+            counts.merge(value, delta, (count, change) -> count + change > 0 ? count + change
+                    : null);
+        }
+    }
+}
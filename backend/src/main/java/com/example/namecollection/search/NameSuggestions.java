@@ -0,0 +1,216 @@
+package com.example.namecollection.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.example.namecollection.dto.NameSuggestionDTO;
+
+/**
+ * Immutable prefix index over distinct name values, each weighted by how many names use it.
+ *
+ * <p>
+ * Values are sorted by their folded form (see {@link NameKeys#fold}), so the values starting
+ * with a prefix form one contiguous range, which is the subtree a trie would hold for that
+ * prefix. A max tree over the weights yields the heaviest values of a range in weight order
+ * without scanning it: top-k costs O(k log n) after two binary searches. Folded and original
+ * values are packed into two char arrays with offsets rather than kept as String objects, which
+ * saves the headers of a String and its backing array (about 40 bytes) per value.
+ */
+public final class NameSuggestions {
+    public static final NameSuggestions EMPTY = build(Map.of());
+
+    private final char[] folded;
+    private final int[] foldedOffsets;
+    private final char[] values;
+    private final int[] valueOffsets;
+    private final int[] weights;
+    // Complete binary tree over the weights; each node holds the position of the heaviest
+    // value below it, preferring the lower position (alphabetical order) on ties
+    private final int[] heaviest;
+    private final int leaves;
+
+    private NameSuggestions(List<String> sortedValues, List<String> sortedFolded, int[] weights) {
+        int count = sortedValues.size();
+        this.weights = weights;
+        this.foldedOffsets = new int[count + 1];
+        this.valueOffsets = new int[count + 1];
+        this.folded = pack(sortedFolded, foldedOffsets);
+        this.values = pack(sortedValues, valueOffsets);
+
+        int size = 1;
+        while (size < count) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.heaviest = new int[2 * size];
+        Arrays.fill(heaviest, -1);
+        for (int i = 0; i < count; i++) {
+            heaviest[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            heaviest[node] = heavier(heaviest[2 * node], heaviest[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Build the index from the number of names using each value. Values with a count below one
+     * are left out.
+     */
+    public static NameSuggestions build(Map<String, Integer> counts) {
+        List<Map.Entry<String, Map.Entry<String, Integer>>> sorted = counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> Map.entry(NameKeys.fold(entry.getKey()), entry))
+                .sorted(Map.Entry.<String, Map.Entry<String, Integer>>comparingByKey()
+                        .thenComparing(entry -> entry.getValue().getKey()))
+                .toList();
+
+        List<String> sortedFolded = new ArrayList<>(sorted.size());
+        List<String> sortedValues = new ArrayList<>(sorted.size());
+        int[] weights = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            sortedFolded.add(sorted.get(i).getKey());
+            sortedValues.add(sorted.get(i).getValue().getKey());
+            weights[i] = sorted.get(i).getValue().getValue();
+        }
+        return new NameSuggestions(sortedValues, sortedFolded, weights);
+    }
+
+    /**
+     * Number of distinct values
+     */
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * Approximate heap used by the arrays of this index, in bytes
+     */
+    public long estimatedBytes() {
+        return 2L * (folded.length + values.length)
+                + 4L * (foldedOffsets.length + valueOffsets.length + weights.length
+                        + heaviest.length);
+    }
+
+    /**
+     * The most used values whose folded form starts with the folded prefix, most used first and
+     * alphabetically among equals
+     *
+     * @param prefix the typed prefix; case and accents are ignored
+     * @param limit the maximum number of suggestions
+     */
+    public List<NameSuggestionDTO> top(String prefix, int limit) {
+        String key = NameKeys.fold(prefix);
+        int from = lowerBound(key, false);
+        int to = lowerBound(key, true);
+        if (from >= to || limit <= 0) {
+            return List.of();
+        }
+
+        // Ranges still holding unreported values, by the weight of their heaviest value
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                Comparator.<int[]>comparingInt(range -> -weights[range[2]])
+                        .thenComparingInt(range -> range[2]));
+        ranges.add(new int[] {from, to, heaviestIn(from, to)});
+
+        List<NameSuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, to - from));
+        while (!ranges.isEmpty() && suggestions.size() < limit) {
+            int[] range = ranges.poll();
+            int position = range[2];
+            suggestions.add(new NameSuggestionDTO(value(position), weights[position]));
+            if (range[0] < position) {
+                ranges.add(new int[] {range[0], position, heaviestIn(range[0], position)});
+            }
+            if (position + 1 < range[1]) {
+                ranges.add(new int[] {position + 1, range[1],
+                        heaviestIn(position + 1, range[1])});
+            }
+        }
+        return suggestions;
+    }
+
+    private String value(int position) {
+        return new String(values, valueOffsets[position],
+                valueOffsets[position + 1] - valueOffsets[position]);
+    }
+
+    /**
+     * The first position whose folded value is not below the key or, past the prefix range,
+     * the first position that does not start with the key
+     */
+    private int lowerBound(String key, boolean pastPrefix) {
+        int low = 0;
+        int high = weights.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareFolded(middle, key);
+            if (comparison < 0 || (pastPrefix && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compare the folded value at the position with the key, treating a value that starts with
+     * the key as equal to it
+     */
+    private int compareFolded(int position, String key) {
+        int start = foldedOffsets[position];
+        int length = foldedOffsets[position + 1] - start;
+        int common = Math.min(length, key.length());
+        for (int i = 0; i < common; i++) {
+            int difference = folded[start + i] - key.charAt(i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length < key.length() ? -1 : 0;
+    }
+
+    private int heaviestIn(int from, int to) {
+        int best = -1;
+        for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                best = heavier(best, heaviest[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = heavier(best, heaviest[--high]);
+            }
+        }
+        return best;
+    }
+
+    private int heavier(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        if (weights[a] != weights[b]) {
+            return weights[a] > weights[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    private static char[] pack(List<String> strings, int[] offsets) {
+        int length = 0;
+        for (int i = 0; i < strings.size(); i++) {
+            offsets[i] = length;
+            length += strings.get(i).length();
+        }
+        offsets[strings.size()] = length;
+
+        char[] packed = new char[length];
+        for (int i = 0; i < strings.size(); i++) {
+            strings.get(i).getChars(0, strings.get(i).length(), packed, offsets[i]);
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.namecollection.security;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * A user's permissions ({@code SCOPE_} authorities) and roles ({@code ROLE_} authorities),
+ * compiled once per token. Known permissions and roles are bits in an int, so checking them is a
+ * single mask test; any others are kept in hash sets.
+ */
+public final class GrantedPermissions implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String PERMISSION_PREFIX = "SCOPE_";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    static final GrantedPermissions NONE = of(List.of());
+
+    private final int permissionBits;
+    private final int roleBits;
+    private final Set<String> permissions;
+    private final Set<String> roles;
+    private final List<String> permissionList;
+    private final List<String> roleList;
+
+    private GrantedPermissions(List<String> permissionList, List<String> roleList) {
+        int permissionMask = 0;
+        for (String name : permissionList) {
+            Permission permission = Permission.forName(name);
+            if (permission != null) {
+                permissionMask |= permission.bit();
+            }
+        }
+        int roleMask = 0;
+        for (String name : roleList) {
+            Role role = Role.forName(name);
+            if (role != null) {
+                roleMask |= role.bit();
+            }
+        }
+        this.permissionBits = permissionMask;
+        this.roleBits = roleMask;
+        this.permissions = new HashSet<>(permissionList);
+        this.roles = new HashSet<>(roleList);
+        this.permissionList = Collections.unmodifiableList(permissionList);
+        this.roleList = Collections.unmodifiableList(roleList);
+    }
+
+    /**
+     * Compile the permissions and roles found in a set of authorities
+     */
+    public static GrantedPermissions of(Collection<? extends GrantedAuthority> authorities) {
+        List<String> permissions = new ArrayList<>();
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority grantedAuthority : authorities) {
+            String authority = grantedAuthority.getAuthority();
+            if (authority == null) {
+                continue;
+            }
+            if (authority.startsWith(PERMISSION_PREFIX)) {
+                permissions.add(authority.substring(PERMISSION_PREFIX.length()));
+            } else if (authority.startsWith(ROLE_PREFIX)) {
+                roles.add(authority.substring(ROLE_PREFIX.length()));
+            }
+        }
+        return new GrantedPermissions(permissions, roles);
+    }
+
+    /**
+     * The compiled permissions of an authentication. Tokens from
+     * {@link com.example.namecollection.config.CustomJwtAuthenticationConverter} carry them
+     * already; any other authentication is compiled from its authorities.
+     */
+    public static GrantedPermissions of(Authentication authentication) {
+        if (authentication == null) {
+            return NONE;
+        }
+        if (authentication instanceof PermissionAuthenticationToken token) {
+            return token.getPermissions();
+        }
+        return of(authentication.getAuthorities());
+    }
+
+    public boolean has(Permission permission) {
+        return (permissionBits & permission.bit()) != 0;
+    }
+
+    /**
+     * @return whether every one of the permissions is granted
+     */
+    public boolean hasAll(Set<Permission> permissions) {
+        int required = 0;
+        for (Permission permission : permissions) {
+            required |= permission.bit();
+        }
+        return (permissionBits & required) == required;
+    }
+
+    public boolean has(Role role) {
+        return (roleBits & role.bit()) != 0;
+    }
+
+    /**
+     * @param permissionName the permission without its {@code SCOPE_} prefix
+     */
+    public boolean hasPermission(String permissionName) {
+        Permission permission = Permission.forName(permissionName);
+        return permission != null ? has(permission) : permissions.contains(permissionName);
+    }
+
+    /**
+     * @param roleName the role without its {@code ROLE_} prefix, matched exactly
+     */
+    public boolean hasRole(String roleName) {
+        Role role = Role.forName(roleName);
+        return role != null ? has(role) : roles.contains(roleName);
+    }
+
+    /**
+     * The permission names without their {@code SCOPE_} prefix
+     */
+    public List<String> getPermissionNames() {
+        return permissionList;
+    }
+
+    /**
+     * The role names without their {@code ROLE_} prefix
+     */
+    public List<String> getRoleNames() {
+        return roleList;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.namecollection.security;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The API permissions granted through the access token's {@code permissions} or {@code scope}
+ * claims, each with its own bit in {@link GrantedPermissions}
+ */
+public enum Permission {
+    READ_NAMES("read:names"),
+    CREATE_NAMES("create:names"),
+    UPDATE_NAMES("update:names"),
+    DELETE_NAMES("delete:names");
+
+    private static final Map<String, Permission> BY_NAME = new HashMap<>();
+
+    static {
+        for (Permission permission : values()) {
+            BY_NAME.put(permission.permissionName, permission);
+        }
+    }
+
+    private final String permissionName;
+    private final int bit;
+
+    Permission(String permissionName) {
+        this.permissionName = permissionName;
+        this.bit = 1 << ordinal();
+    }
+
+    /**
+     * The permission as it appears in the token, e.g. {@code read:names}
+     */
+    public String getPermissionName() {
+        return permissionName;
+    }
+
+    int bit() {
+        return bit;
+    }
+
+    /**
+     * Look up a permission by its name in the token
+     *
+     * @return the permission, or null if it is not one the API checks
+     */
+    public static Permission forName(String permissionName) {
+        return BY_NAME.get(permissionName);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.namecollection.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * A JWT authentication that also carries its authorities compiled into
+ * {@link GrantedPermissions}, so authorization checks don't scan the authority collection
+ */
+public class PermissionAuthenticationToken extends JwtAuthenticationToken {
+    private static final long serialVersionUID = 1L;
+
+    private final GrantedPermissions permissions;
+
+    public PermissionAuthenticationToken(Jwt jwt,
+            Collection<? extends GrantedAuthority> authorities, String name) {
+        this(jwt, authorities, name, GrantedPermissions.of(authorities));
+    }
+
+    private PermissionAuthenticationToken(Jwt jwt,
+            Collection<? extends GrantedAuthority> authorities, String name,
+            GrantedPermissions permissions) {
+        super(jwt, authorities, name);
+        this.permissions = permissions;
+    }
+
+    public GrantedPermissions getPermissions() {
+        return permissions;
+    }
+
+    /**
+     * A copy sharing the token, authorities and compiled permissions, without the details
+     */
+    public PermissionAuthenticationToken copy() {
+        return new PermissionAuthenticationToken(getToken(), getAuthorities(), getName(),
+                permissions);
+    }
+}
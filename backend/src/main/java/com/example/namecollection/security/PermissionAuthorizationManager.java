@@ -0,0 +1,52 @@
+package com.example.namecollection.security;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Authorizes calls to methods annotated with {@link RequirePermission}. The required permissions
+ * are looked up once per method.
+ */
+public class PermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+    private final Map<Method, Set<Permission>> requiredPermissions = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication,
+            MethodInvocation invocation) {
+        return decide(authentication, invocation);
+    }
+
+    /**
+     * @deprecated use {@link #authorize(Supplier, MethodInvocation)}
+     */
+    @Override
+    @Deprecated
+    public AuthorizationDecision check(Supplier<Authentication> authentication,
+            MethodInvocation invocation) {
+        return decide(authentication, invocation);
+    }
+
+    private AuthorizationDecision decide(Supplier<Authentication> authentication,
+            MethodInvocation invocation) {
+        Set<Permission> required = requiredPermissions.computeIfAbsent(invocation.getMethod(),
+                method -> Set.copyOf(Arrays.asList(AnnotatedElementUtils
+                        .findMergedAnnotation(method, RequirePermission.class).value())));
+        return new AuthorizationDecision(isGranted(authentication.get(), required));
+    }
+
+    static boolean isGranted(Authentication authentication, Set<Permission> required) {
+        // Like hasAuthority, this checks the authorities only
+        return authentication != null && GrantedPermissions.of(authentication).hasAll(required);
+    }
+}
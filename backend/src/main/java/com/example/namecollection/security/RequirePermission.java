@@ -0,0 +1,18 @@
+package com.example.namecollection.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Only allow the annotated method to be called by a user holding all the permissions. Checked by
+ * {@link PermissionAuthorizationManager} with a bit test rather than a SpEL expression.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequirePermission {
+    Permission[] value();
+}
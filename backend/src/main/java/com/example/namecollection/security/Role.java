@@ -0,0 +1,40 @@
+package com.example.namecollection.security;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The roles assigned in Auth0, each with its own bit in {@link GrantedPermissions}
+ */
+public enum Role {
+    VIEWER,
+    EDITOR,
+    ADMIN;
+
+    private static final Map<String, Role> BY_NAME = new HashMap<>();
+
+    static {
+        for (Role role : values()) {
+            BY_NAME.put(role.name(), role);
+        }
+    }
+
+    private final int bit;
+
+    Role() {
+        this.bit = 1 << ordinal();
+    }
+
+    int bit() {
+        return bit;
+    }
+
+    /**
+     * Look up a role by its upper-case name
+     *
+     * @return the role, or null if it is not one of the known roles
+     */
+    public static Role forName(String name) {
+        return BY_NAME.get(name);
+    }
+}
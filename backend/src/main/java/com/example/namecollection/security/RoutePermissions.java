@@ -0,0 +1,77 @@
+package com.example.namecollection.security;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The permissions each API route requires, as one table consulted once per request. Routes are
+ * matched in order by path prefix and HTTP method; requests matching no route only need to be
+ * authenticated.
+ */
+public class RoutePermissions implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private record Route(String pathPrefix, Map<String, Set<Permission>> permissionsByMethod) {
+    }
+
+    // Imports replace the names of existing uuids, so they also need the update permission
+    private static final List<Route> ROUTES = List.of(
+            new Route("/api/names/import",
+                    Map.of("POST", Set.of(Permission.CREATE_NAMES, Permission.UPDATE_NAMES))),
+            new Route("/api/names",
+                    Map.of("GET", Set.of(Permission.READ_NAMES),
+                            "POST", Set.of(Permission.CREATE_NAMES),
+                            "PUT", Set.of(Permission.UPDATE_NAMES),
+                            "DELETE", Set.of(Permission.DELETE_NAMES))));
+
+    private final AuthorizationManager<RequestAuthorizationContext> authenticated =
+            AuthenticatedAuthorizationManager.authenticated();
+
+    /**
+     * @return the permissions the request requires, or an empty set if it only needs
+     *         authentication
+     */
+    public Set<Permission> requiredPermissions(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        for (Route route : ROUTES) {
+            if (uri.startsWith(route.pathPrefix())
+                    && route.permissionsByMethod().containsKey(request.getMethod())) {
+                return route.permissionsByMethod().get(request.getMethod());
+            }
+        }
+        return Set.of();
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication,
+            RequestAuthorizationContext context) {
+        Set<Permission> required = requiredPermissions(context.getRequest());
+        if (required.isEmpty()) {
+            return authenticated.authorize(authentication, context);
+        }
+        return new AuthorizationDecision(
+                PermissionAuthorizationManager.isGranted(authentication.get(), required));
+    }
+
+    /**
+     * @deprecated use {@link #authorize(Supplier, RequestAuthorizationContext)}
+     */
+    @Override
+    @Deprecated
+    public AuthorizationDecision check(Supplier<Authentication> authentication,
+            RequestAuthorizationContext context) {
+        AuthorizationResult result = authorize(authentication, context);
+        return result instanceof AuthorizationDecision decision ? decision
+                : new AuthorizationDecision(result.isGranted());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.namecollection.service;
+
+/**
+ * Text formats names are bulk imported from and exported to: CSV with a header row naming the
+ * fields, or one JSON object per line
+ */
+public enum BulkFormat {
+    CSV, NDJSON
+}
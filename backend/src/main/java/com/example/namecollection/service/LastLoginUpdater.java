@@ -0,0 +1,120 @@
+package com.example.namecollection.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for {@code users.last_login}. Logins are recorded in memory, where the
+ * latest timestamp per user wins, and written as one JDBC batch on a fixed interval, as soon as
+ * the buffer reaches the flush size, and on shutdown. Recording a login never touches the
+ * database.
+ */
+@Component
+public class LastLoginUpdater {
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginUpdater.class);
+
+    static final String UPDATE_LAST_LOGIN_SQL = "UPDATE users SET last_login = ? "
+            + "WHERE auth0_id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final int flushSize;
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder writtenCount = new LongAdder();
+
+    public LastLoginUpdater(JdbcTemplate jdbcTemplate, TaskScheduler taskScheduler,
+            @Value("${users.last-login.flush-size:500}") int flushSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * Remember a login, keeping the later timestamp if the user already has one pending
+     */
+    public void recordLogin(String auth0Id, LocalDateTime lastLogin) {
+        pending.merge(auth0Id, lastLogin,
+                (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+
+        // Flush early on the scheduler thread rather than on the caller's request thread
+        if (pending.size() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Number of last login updates written so far
+     */
+    public long writtenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * Write every pending login in a single batch
+     *
+     * @return the number of logins written
+     */
+    @Scheduled(fixedDelayString = "${users.last-login.flush-interval:5s}")
+    public synchronized int flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<String, LocalDateTime>> drained = new ArrayList<>(pending.size());
+        for (Map.Entry<String, LocalDateTime> entry : pending.entrySet()) {
+            String auth0Id = entry.getKey();
+            LocalDateTime lastLogin = entry.getValue();
+            // Only drain the value we read; a newer login recorded meanwhile stays pending
+            if (pending.remove(auth0Id, lastLogin)) {
+                drained.add(Map.entry(auth0Id, lastLogin));
+            }
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(drained.size());
+        for (Map.Entry<String, LocalDateTime> entry : drained) {
+            Timestamp lastLogin = Timestamp.valueOf(entry.getValue());
+            batchArgs.add(new Object[] {lastLogin, entry.getKey(), lastLogin});
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_SQL, batchArgs);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write {} last login updates, will retry", drained.size(), e);
+            drained.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(),
+                    (current, failed) -> current.isAfter(failed) ? current : failed));
+            return 0;
+        }
+
+        writtenCount.add(drained.size());
+        logger.debug("Wrote {} last login updates", drained.size());
+        return drained.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.namecollection.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.namecollection.repository.NameRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cheap approximate totals for paged search results. The unfiltered total comes from the
+ * planner's row estimate, while totals for a search term are exact counts remembered for a
+ * short time so repeated page views of the same search only count once.
+ */
+@Component
+public class NameCountEstimator {
+    private final NameRepository nameRepository;
+    private final Cache<String, Long> searchCounts;
+
+    public NameCountEstimator(NameRepository nameRepository,
+            @Value("${names.search.count-cache.ttl:30s}") Duration ttl,
+            @Value("${names.search.count-cache.maximum-size:10000}") long maximumSize) {
+        this.nameRepository = nameRepository;
+        this.searchCounts =
+                Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).recordStats()
+                        .build();
+    }
+
+    /**
+     * The remembered search counts, for cache metrics
+     */
+    public Cache<String, Long> getSearchCounts() {
+        return searchCounts;
+    }
+
+    /**
+     * Estimate the number of names matching the pattern
+     *
+     * @param pattern the escaped LIKE pattern, or null for all names
+     * @return the estimated total
+     */
+    public long estimateTotal(String pattern) {
+        if (pattern == null) {
+            Long estimate = nameRepository.estimateRowCount();
+            // The estimate is missing or -1 until the table has been analyzed
+            return estimate != null && estimate > 0 ? estimate : nameRepository.count();
+        }
+        return searchCounts.get(pattern, nameRepository::countByTerm);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.namecollection.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Encodes keyset positions as opaque, URL-safe cursor tokens. A token carries the sort it was
+ * issued for plus the last row's sort key and id, so the next page can continue with a
+ * {@code WHERE (key, id) > (?, ?)} seek instead of an OFFSET. A null sort key (a row without
+ * {@code created_at}) is encoded by leaving the key out, so it is not confused with a value.
+ */
+final class NameCursorCodec {
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "|";
+
+    private NameCursorCodec() {}
+
+    static String encode(Sort.Order order, KeysetScrollPosition position) {
+        Map<String, Object> keys = position.getKeys();
+        Object key = keys.get(order.getProperty());
+        String raw = String.join(SEPARATOR, VERSION, order.getProperty(),
+                order.getDirection().name(), String.valueOf(keys.get("id")));
+        if (key != null) {
+            raw += SEPARATOR + key;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor, Sort.Order order) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|", 5);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (parts.length < 4 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[1].equals(order.getProperty())
+                || !parts[2].equals(order.getDirection().name())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            keys.put(order.getProperty(),
+                    parts.length == 5 ? parseKey(order.getProperty(), parts[4]) : null);
+            keys.put("id", Long.valueOf(parts[3]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private static Object parseKey(String property, String value) {
+        return switch (property) {
+            case "id" -> Long.valueOf(value);
+            case "createdAt" -> LocalDateTime.parse(value);
+            default -> value;
+        };
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.namecollection.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.example.namecollection.dto.BatchItemErrorDTO;
+import com.example.namecollection.dto.NameImportChunkDTO;
+import com.example.namecollection.dto.NameImportDTO;
+import com.example.namecollection.dto.NameImportReportDTO;
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.event.NamesImportedEvent;
+import com.example.namecollection.repository.NameRepository;
+import com.example.namecollection.repository.NameUpdate;
+import com.example.namecollection.search.NameKeys;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk import of names from a CSV or newline-delimited JSON stream.
+ *
+ * <p>
+ * Records are parsed one at a time and validated against the {@link NameImportDTO} rules. Valid
+ * records are buffered as CSV until a chunk is full; the chunk is then copied into Postgres and
+ * upserted by uuid in its own transaction. The next record is not read until that commit, so
+ * a fast client is held back by the database and memory stays bounded by the chunk size.
+ * Records without a uuid are given a new one.
+ */
+@Service
+public class NameImportService {
+    private static final Logger logger = LoggerFactory.getLogger(NameImportService.class);
+
+    // Rejections itemised per chunk; the rest are only counted
+    static final int MAX_ERRORS_PER_CHUNK = 20;
+
+    private final NameRepository nameRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final int chunkSize;
+
+    public NameImportService(NameRepository nameRepository,
+            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+            Validator validator, ObjectMapper objectMapper,
+            @Value("${names.import.chunk-size:5000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Import chunk size must be positive: " + chunkSize);
+        }
+        this.nameRepository = nameRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.ndjsonReader = objectMapper.readerFor(NameImportDTO.class);
+        // Columns are matched by the header row, e.g. firstName,lastName[,uuid]
+        this.csvReader = CsvMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build()
+                .readerFor(NameImportDTO.class).with(CsvSchema.emptySchema().withHeader());
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import every record of the body. Invalid records are skipped and reported. If the body
+     * cannot be parsed, the records read before the failure are still imported and the report
+     * carries the error.
+     */
+    public NameImportReportDTO importNames(InputStream body, BulkFormat format) {
+        NameImportReportDTO report = new NameImportReportDTO();
+        ObjectReader reader = format == BulkFormat.CSV ? csvReader : ndjsonReader;
+
+        Chunk chunk = new Chunk(0, 0);
+        long record = 0;
+        try (MappingIterator<NameImportDTO> records = reader.readValues(body)) {
+            while (records.hasNextValue()) {
+                chunk.add(record, records.nextValue());
+                record++;
+                if (chunk.received == chunkSize) {
+                    commit(chunk, report);
+                    chunk = new Chunk(chunk.index + 1, record);
+                }
+            }
+        } catch (IOException | RuntimeJsonMappingException e) {
+            report.setError("Record " + record + " could not be read: " + describe(e));
+        }
+
+        if (chunk.received > 0) {
+            commit(chunk, report);
+        }
+        logger.info("Imported names: {} received, {} inserted, {} updated, {} rejected",
+                report.getReceived(), report.getInserted(), report.getUpdated(),
+                report.getRejected());
+        return report;
+    }
+
+    private void commit(Chunk chunk, NameImportReportDTO report) {
+        List<NameUpdate> upserted = chunk.accepted == 0 ? List.of()
+                : transactionTemplate.execute(status -> {
+                    List<NameUpdate> rows = nameRepository.upsertCopiedRows(
+                            new StringReader(chunk.rows.toString()), LocalDateTime.now());
+                    if (!rows.isEmpty()) {
+                        eventPublisher.publishEvent(new NamesImportedEvent(
+                                rows.stream().map(NameImportService::toEvent).toList()));
+                    }
+                    return rows;
+                });
+
+        int inserted = (int) upserted.stream().filter(row -> row.previousFirstName() == null)
+                .count();
+        int updated = upserted.size() - inserted;
+
+        NameImportChunkDTO chunkDTO = new NameImportChunkDTO();
+        chunkDTO.setChunk(chunk.index);
+        chunkDTO.setFirstRecord(chunk.firstRecord);
+        chunkDTO.setLastRecord(chunk.firstRecord + chunk.received - 1);
+        chunkDTO.setReceived(chunk.received);
+        chunkDTO.setInserted(inserted);
+        chunkDTO.setUpdated(updated);
+        chunkDTO.setUnchanged(chunk.accepted - inserted - updated);
+        chunkDTO.setRejected(chunk.received - chunk.accepted);
+        chunkDTO.setErrors(chunk.errors);
+        report.getChunks().add(chunkDTO);
+
+        report.setReceived(report.getReceived() + chunkDTO.getReceived());
+        report.setInserted(report.getInserted() + inserted);
+        report.setUpdated(report.getUpdated() + updated);
+        report.setUnchanged(report.getUnchanged() + chunkDTO.getUnchanged());
+        report.setRejected(report.getRejected() + chunkDTO.getRejected());
+    }
+
+    private static String describe(Exception e) {
+        // The iterator wraps mapping errors in an unchecked exception
+        Throwable error = e instanceof RuntimeJsonMappingException && e.getCause() != null
+                ? e.getCause()
+                : e;
+        return error instanceof JsonProcessingException jsonError
+                ? jsonError.getOriginalMessage()
+                : error.getMessage();
+    }
+
+    private static NameChangedEvent toEvent(NameUpdate row) {
+        return row.previousFirstName() == null ? NameChangedEvent.created(row.name())
+                : NameChangedEvent.updated(row.name(), row.previousFirstName(),
+                        row.previousLastName());
+    }
+
+    /**
+     * The records of one chunk, with the valid ones encoded as CSV rows for {@code COPY}
+     */
+    private final class Chunk {
+        private final int index;
+        private final long firstRecord;
+        private final StringBuilder rows = new StringBuilder();
+        private final List<BatchItemErrorDTO> errors = new ArrayList<>();
+        private int received;
+        private int accepted;
+
+        Chunk(int index, long firstRecord) {
+            this.index = index;
+            this.firstRecord = firstRecord;
+        }
+
+        void add(long record, NameImportDTO nameDTO) {
+            received++;
+            if (nameDTO == null) {
+                reject(record, Map.of("name", "Name is required"));
+                return;
+            }
+            if (!StringUtils.hasText(nameDTO.getUuid())) {
+                nameDTO.setUuid(null);
+            }
+
+            Set<ConstraintViolation<NameImportDTO>> violations = validator.validate(nameDTO);
+            if (!violations.isEmpty()) {
+                Map<String, String> recordErrors = new HashMap<>();
+                violations.forEach(violation -> recordErrors
+                        .put(violation.getPropertyPath().toString(), violation.getMessage()));
+                reject(record, recordErrors);
+                return;
+            }
+
+            String uuid = nameDTO.getUuid() != null ? nameDTO.getUuid().toLowerCase(Locale.ROOT)
+                    : UUID.randomUUID().toString();
+            rows.append(record).append(',');
+            appendQuoted(uuid).append(',');
+            appendQuoted(nameDTO.getFirstName()).append(',');
+            appendQuoted(nameDTO.getLastName()).append(',');
+            // Search keys are computed here, as rows written by COPY skip the entity callbacks
+            appendQuoted(NameKeys.fold(nameDTO.getFirstName())).append(',');
+            appendQuoted(NameKeys.fold(nameDTO.getLastName())).append(',');
+            appendQuoted(NameKeys.phonetic(nameDTO.getFirstName())).append(',');
+            appendQuoted(NameKeys.phonetic(nameDTO.getLastName())).append('\n');
+            accepted++;
+        }
+
+        private void reject(long record, Map<String, String> recordErrors) {
+            if (errors.size() < MAX_ERRORS_PER_CHUNK) {
+                errors.add(new BatchItemErrorDTO(record, recordErrors));
+            }
+        }
+
+        private StringBuilder appendQuoted(String value) {
+            return rows.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
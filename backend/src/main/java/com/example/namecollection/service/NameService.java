@@ -1,51 +1,356 @@
 package com.example.namecollection.service;
 
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import com.example.namecollection.cache.NameCaches;
+import com.example.namecollection.config.ReadReplicaRouting;
+import com.example.namecollection.dto.CursorPageDTO;
+import com.example.namecollection.dto.NameCreatedBucketDTO;
 import com.example.namecollection.dto.NameResponseDTO;
 import com.example.namecollection.dto.NameSearchCriteriaDTO;
 import com.example.namecollection.dto.PageDTO;
+import com.example.namecollection.event.NameChangedEvent;
 import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameCandidates;
+import com.example.namecollection.repository.NameKeysetRow;
 import com.example.namecollection.repository.NameRepository;
+import com.example.namecollection.repository.NameUpdate;
+import com.example.namecollection.search.NameKeys;
+import com.example.namecollection.search.NameSearchIndex;
+import com.example.namecollection.search.NameSearchMode;
 
 @Service
 public class NameService {
+    // Native queries sort on column names rather than entity properties
+    private static final Map<String, String> SORT_COLUMNS = Map.of("id", "id", "firstName",
+            "first_name", "lastName", "last_name", "createdAt", "created_at");
+
+    // Names fetched by search key for a phonetic or fuzzy search before they are ranked
+    private static final int MAX_SEARCH_CANDIDATES = 2000;
+    // Phonetic matches are ranked by distance without a cutoff
+    private static final int UNLIMITED_DISTANCE = Short.MAX_VALUE;
+
+    // Longest ranges countCreatedBetween counts, in hour and in day buckets
+    private static final Duration MAX_HOURLY_HISTOGRAM_RANGE = Duration.ofDays(31);
+    private static final Duration MAX_DAILY_HISTOGRAM_RANGE = Duration.ofDays(366);
+
+    /**
+     * How the total number of results is computed for a page of search results
+     */
+    private enum TotalMode {
+        EXACT("exact"), ESTIMATED("estimated"), NONE("none");
+
+        private final String value;
+
+        TotalMode(String value) {
+            this.value = value;
+        }
+
+        static TotalMode from(String value) {
+            for (TotalMode mode : values()) {
+                if (mode.value.equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            return EXACT;
+        }
+    }
+
     private final NameRepository nameRepository;
+    private final NameSearchIndex nameSearchIndex;
+    private final NameCountEstimator nameCountEstimator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public NameService(NameRepository nameRepository) {
+    public NameService(NameRepository nameRepository, NameSearchIndex nameSearchIndex,
+            NameCountEstimator nameCountEstimator, ApplicationEventPublisher eventPublisher) {
         this.nameRepository = nameRepository;
+        this.nameSearchIndex = nameSearchIndex;
+        this.nameCountEstimator = nameCountEstimator;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<NameResponseDTO> getAllNames() {
-        return nameRepository.findAll().stream().map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Hand every name to the consumer one at a time, in id order. Rows are projected straight
+     * to DTOs, so memory use stays flat regardless of the table size.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllNames(Consumer<NameResponseDTO> consumer) {
+        try (Stream<NameResponseDTO> names = nameRepository.streamAllResponses()) {
+            names.forEach(consumer);
+        }
     }
 
+    /**
+     * Write the names matching the criteria's search term, in its sort order, from a Postgres
+     * {@code COPY} straight to the output stream. Page and size are ignored. Rows never become
+     * entities or DTOs, so memory use does not grow with the export.
+     *
+     * @return the number of names written
+     */
+    @Transactional(readOnly = true)
+    public long exportNames(NameSearchCriteriaDTO criteria, BulkFormat format, OutputStream out) {
+        String searchTerm = normalizeSearchTerm(criteria.getSearchTerm());
+        String pattern = searchTerm.isEmpty() ? null : toLikePattern(searchTerm);
+        Sort columnSort = toColumnSort(createSort(criteria));
+        return format == BulkFormat.NDJSON
+                ? nameRepository.copyResponsesAsNdjson(pattern, columnSort, out)
+                : nameRepository.copyResponsesAsCsv(pattern, columnSort, out);
+    }
+
+    /**
+     * Number of names created in each hour or day of a time range, counted by the database. The
+     * range condition reads only the matching block ranges through the BRIN index on
+     * {@code created_at}.
+     *
+     * @throws IllegalArgumentException if the range is empty or longer than 31 days in hour
+     *         buckets or 366 days in day buckets
+     */
+    @Transactional(readOnly = true)
+    public List<NameCreatedBucketDTO> countCreatedBetween(LocalDateTime from, LocalDateTime to,
+            ChronoUnit unit) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        boolean hourly = unit == ChronoUnit.HOURS;
+        Duration maxRange = hourly ? MAX_HOURLY_HISTOGRAM_RANGE : MAX_DAILY_HISTOGRAM_RANGE;
+        if (Duration.between(from, to).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("The range is longer than " + maxRange.toDays()
+                    + " days for " + (hourly ? "hour" : "day") + " buckets");
+        }
+        return nameRepository.countCreatedBetween(from, to, unit);
+    }
+
+    /**
+     * Read paths select DTO projections rather than entities, inside a read-only transaction so
+     * Hibernate neither tracks nor flushes anything.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = NameCaches.NAME_PAGES,
+            key = "T(com.example.namecollection.cache.NamePageKey).of(#criteria)")
     public PageDTO<NameResponseDTO> getNames(NameSearchCriteriaDTO criteria) {
+        return ReadReplicaRouting.fillingSharedCache(() -> findNames(criteria));
+    }
+
+    /**
+     * The version of the names table, which changes with every committed write from any
+     * instance. Read with a single primary key lookup, so conditional GETs can be answered
+     * without running the search.
+     */
+    @Transactional(readOnly = true)
+    public long getNamesVersion() {
+        return nameRepository.findNamesVersion();
+    }
+
+    private PageDTO<NameResponseDTO> findNames(NameSearchCriteriaDTO criteria) {
         Sort sort = createSort(criteria);
         Pageable pageable = PageRequest.of(criteria.getPage(), criteria.getSize(), sort);
 
-        Page<Name> resultPage;
+        String searchTerm = normalizeSearchTerm(criteria.getSearchTerm());
+        NameSearchMode mode = NameSearchMode.from(criteria.getMode());
+        if (mode != NameSearchMode.CONTAINS && !searchTerm.isEmpty()) {
+            return searchRanked(searchTerm, mode, pageable);
+        }
+
+        if (nameSearchIndex.isReady()) {
+            // The index counts matches as a by-product, so every mode gets an exact total
+            return convertToPageDTO(searchIndexed(searchTerm, pageable));
+        }
+
+        String pattern = searchTerm.isEmpty() ? null : toLikePattern(searchTerm);
+
+        TotalMode totalMode = TotalMode.from(criteria.getTotalMode());
+        if (totalMode == TotalMode.EXACT) {
+            Page<NameResponseDTO> resultPage = pattern != null
+                    ? searchPage(pattern, pageable)
+                    : nameRepository.findResponsePage(pageable);
+            return convertToPageDTO(resultPage);
+        }
 
-        if (StringUtils.hasText(criteria.getSearchTerm())) {
-            resultPage = nameRepository
-                    .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-                            criteria.getSearchTerm(), criteria.getSearchTerm(), pageable);
-        } else {
-            resultPage = nameRepository.findAll(pageable);
+        // Fetch one extra row to learn whether there is a next page instead of counting
+        Slice<NameResponseDTO> resultSlice = pattern != null
+                ? searchSlice(pattern, pageable)
+                : nameRepository.findResponseSlice(pageable);
+        if (totalMode == TotalMode.NONE) {
+            return convertToPageDTO(resultSlice, -1, totalMode);
         }
 
-        return convertToPageDTO(resultPage);
+        // An estimate can lag behind the rows this page has just proven to exist
+        long seen = pageable.getOffset() + resultSlice.getNumberOfElements()
+                + (resultSlice.hasNext() ? 1 : 0);
+        long estimate = Math.max(nameCountEstimator.estimateTotal(pattern), seen);
+        return convertToPageDTO(resultSlice, estimate, totalMode);
+    }
+
+    private Page<NameResponseDTO> searchPage(String pattern, Pageable pageable) {
+        List<NameResponseDTO> content = nameRepository.searchResponsesByTerm(pattern,
+                toColumnSort(pageable.getSort()), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> nameRepository.countByTerm(pattern));
+    }
+
+    private Slice<NameResponseDTO> searchSlice(String pattern, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<NameResponseDTO> rows = nameRepository.searchResponsesByTerm(pattern,
+                toColumnSort(pageable.getSort()), pageable.getOffset(), size + 1);
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Phonetic and fuzzy search: fetch candidates by their indexed search keys, rank them by
+     * edit distance to the term, closest first, and cut the page out of the ranking. The
+     * requested sort is not used. A term that matches more than
+     * {@value #MAX_SEARCH_CANDIDATES} names is ranked among its exact and most similar matches
+     * only; a fuzzy total then counts the names past them unfiltered and is an estimate.
+     */
+    private PageDTO<NameResponseDTO> searchRanked(String searchTerm, NameSearchMode mode,
+            Pageable pageable) {
+        String term = NameKeys.fold(searchTerm);
+        Set<String> codes = NameKeys.phoneticCodes(term);
+        boolean fuzzy = mode == NameSearchMode.FUZZY;
+        int maxDistance = fuzzy ? fuzzyDistance(term) : UNLIMITED_DISTANCE;
+
+        NameCandidates candidates = nameRepository.findSearchCandidates(codes, term, fuzzy,
+                MAX_SEARCH_CANDIDATES);
+        List<RankedName> ranked = candidates.names().stream()
+                .map(name -> new RankedName(name, distance(term, name, maxDistance)))
+                // Fuzzy keeps names that sound alike even when they are spelled far apart
+                .filter(candidate -> candidate.distance() <= maxDistance
+                        || codes.contains(NameKeys.phonetic(candidate.name().getFirstName()))
+                        || codes.contains(NameKeys.phonetic(candidate.name().getLastName())))
+                .sorted(Comparator.comparingInt(RankedName::distance)
+                        .thenComparing(candidate -> candidate.name().getLastName())
+                        .thenComparing(candidate -> candidate.name().getFirstName())
+                        .thenComparing(candidate -> candidate.name().getUuid()))
+                .toList();
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<NameResponseDTO> content = ranked.subList(from, to).stream()
+                .map(RankedName::name)
+                .toList();
+        long unranked = candidates.total() - candidates.names().size();
+        if (unranked == 0) {
+            return convertToPageDTO(new PageImpl<>(content, pageable, ranked.size()));
+        }
+        long total = ranked.size() + unranked;
+        Slice<NameResponseDTO> slice = new SliceImpl<>(content, pageable, to < ranked.size());
+        return convertToPageDTO(slice, total, fuzzy ? TotalMode.ESTIMATED : TotalMode.EXACT);
+    }
+
+    private record RankedName(NameResponseDTO name, int distance) {
+    }
+
+    /**
+     * The closest of the term's distances to the first name, the last name and the full name
+     */
+    private static int distance(String term, NameResponseDTO name, int limit) {
+        String firstName = NameKeys.fold(name.getFirstName());
+        String lastName = NameKeys.fold(name.getLastName());
+        return Math.min(NameKeys.editDistance(term, firstName, limit),
+                Math.min(NameKeys.editDistance(term, lastName, limit),
+                        NameKeys.editDistance(term, firstName + " " + lastName, limit)));
+    }
+
+    /**
+     * Edits allowed for a fuzzy match, growing with the term so short terms stay precise
+     */
+    private static int fuzzyDistance(String term) {
+        if (term.length() <= 2) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Keyset pagination: seek past the row identified by the criteria's cursor instead of
+     * skipping an OFFSET, so every page costs the same however deep the client scrolls.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NameResponseDTO> getNamesAfter(NameSearchCriteriaDTO criteria) {
+        Sort.Order order = createSort(criteria).iterator().next();
+        Map<String, Object> after = StringUtils.hasText(criteria.getAfter())
+                ? NameCursorCodec.decode(criteria.getAfter(), order).getKeys()
+                : Map.of();
+
+        String searchTerm = normalizeSearchTerm(criteria.getSearchTerm());
+        // One row past the page tells whether there is a next one
+        List<NameKeysetRow> rows = nameRepository.searchResponsesAfter(
+                searchTerm.isEmpty() ? null : toLikePattern(searchTerm),
+                order.withProperty(SORT_COLUMNS.get(order.getProperty())),
+                after.get(order.getProperty()), (Long) after.get("id"), criteria.getSize() + 1);
+        boolean hasNext = rows.size() > criteria.getSize();
+        if (hasNext) {
+            rows = rows.subList(0, criteria.getSize());
+        }
+
+        CursorPageDTO<NameResponseDTO> cursorPageDTO = new CursorPageDTO<>();
+        cursorPageDTO.setContent(rows.stream().map(NameKeysetRow::name).toList());
+        cursorPageDTO.setPageSize(criteria.getSize());
+        cursorPageDTO.setHasNext(hasNext);
+        if (hasNext) {
+            cursorPageDTO.setNextCursor(
+                    NameCursorCodec.encode(order, keysetPosition(order, rows.getLast())));
+        }
+        return cursorPageDTO;
+    }
+
+    private static KeysetScrollPosition keysetPosition(Sort.Order order, NameKeysetRow row) {
+        NameResponseDTO name = row.name();
+        Object key = switch (order.getProperty()) {
+            case "firstName" -> name.getFirstName();
+            case "lastName" -> name.getLastName();
+            case "createdAt" -> name.getCreatedAt();
+            default -> row.id();
+        };
+        // The key of a row without created_at is null, which Map.of rejects
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(order.getProperty(), key);
+        keys.put("id", row.id());
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Resolve the matching ids and their order from the in-memory index, then fetch only the
+     * rows of the requested page from the database.
+     */
+    private Page<NameResponseDTO> searchIndexed(String searchTerm, Pageable pageable) {
+        Sort.Order order = pageable.getSort().iterator().next();
+        NameSearchIndex.SearchResult result = nameSearchIndex.search(searchTerm,
+                order.getProperty(), order.isAscending(), pageable.getOffset(),
+                pageable.getPageSize());
+
+        // Rows deleted since the index lookup are skipped
+        List<NameResponseDTO> content = nameRepository.findResponsesByIds(result.ids());
+        return new PageImpl<>(content, pageable, result.total());
     }
 
     private Sort createSort(NameSearchCriteriaDTO criteria) {
@@ -59,7 +364,33 @@ public class NameService {
                 "DESC".equalsIgnoreCase(criteria.getSortDirection()) ? Sort.Direction.DESC
                         : Sort.Direction.ASC;
 
-        return Sort.by(direction, sortBy);
+        Sort sort = Sort.by(direction, sortBy);
+        // Break ties on id so rows with equal sort keys keep a stable order across pages
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    private Sort toColumnSort(Sort sort) {
+        return Sort.by(sort.stream()
+                .map(order -> order.withProperty(SORT_COLUMNS.get(order.getProperty())))
+                .toList());
+    }
+
+    /**
+     * The search term as every search path and the page cache key use it: trimmed and
+     * lower-cased, since search is case-insensitive. A missing term becomes empty.
+     */
+    public static String normalizeSearchTerm(String searchTerm) {
+        return searchTerm == null ? "" : searchTerm.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Build a LIKE pattern for a substring match of a normalized search term, escaping any
+     * wildcards in it so they are matched literally.
+     */
+    private String toLikePattern(String searchTerm) {
+        String escaped = searchTerm.replace("\\", "\\\\")
+                .replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
     private boolean isValidSortField(String field) {
@@ -67,61 +398,92 @@ public class NameService {
                 || field.equals("lastName") || field.equals("createdAt"));
     }
 
-    private PageDTO<NameResponseDTO> convertToPageDTO(Page<Name> page) {
-        List<NameResponseDTO> content =
-                page.getContent().stream().map(this::convertToDTO).collect(Collectors.toList());
+    private PageDTO<NameResponseDTO> convertToPageDTO(Slice<NameResponseDTO> slice,
+            long totalElements, TotalMode totalMode) {
+        PageDTO<NameResponseDTO> pageDTO = new PageDTO<>();
+        pageDTO.setContent(slice.getContent());
+        pageDTO.setPageNumber(slice.getNumber());
+        pageDTO.setPageSize(slice.getSize());
+        pageDTO.setTotalElements(totalElements);
+        pageDTO.setTotalPages(totalElements < 0 ? -1
+                : (int) Math.ceil((double) totalElements / Math.max(slice.getSize(), 1)));
+        pageDTO.setLast(!slice.hasNext());
+        pageDTO.setFirst(slice.isFirst());
+        pageDTO.setTotalMode(totalMode.value);
 
+        return pageDTO;
+    }
+
+    PageDTO<NameResponseDTO> convertToPageDTO(Page<NameResponseDTO> page) {
         PageDTO<NameResponseDTO> pageDTO = new PageDTO<>();
-        pageDTO.setContent(content);
+        pageDTO.setContent(page.getContent());
         pageDTO.setPageNumber(page.getNumber());
         pageDTO.setPageSize(page.getSize());
         pageDTO.setTotalElements(page.getTotalElements());
         pageDTO.setTotalPages(page.getTotalPages());
         pageDTO.setLast(page.isLast());
         pageDTO.setFirst(page.isFirst());
+        pageDTO.setTotalMode(TotalMode.EXACT.value);
 
         return pageDTO;
     }
 
+    @Transactional
     public NameResponseDTO saveName(Name name) {
         Name savedName = nameRepository.save(name);
+        eventPublisher.publishEvent(NameChangedEvent.created(savedName));
         return convertToDTO(savedName);
     }
 
+    /**
+     * Save several names in one transaction. Ids come from the pooled sequence, so Hibernate
+     * sends the inserts as JDBC batches when the transaction flushes.
+     */
+    @Transactional
+    public List<NameResponseDTO> saveNames(List<Name> names) {
+        List<Name> savedNames = nameRepository.saveAll(names);
+        savedNames.forEach(
+                savedName -> eventPublisher.publishEvent(NameChangedEvent.created(savedName)));
+        return savedNames.stream().map(this::convertToDTO).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = NameCaches.NAMES_BY_UUID, unless = "#result == null")
     public NameResponseDTO getNameByUuid(String uuid) {
-        return nameRepository.findByUuid(uuid).map(this::convertToDTO).orElse(null);
+        return ReadReplicaRouting.fillingSharedCache(
+                () -> nameRepository.findResponseByUuid(uuid).orElse(null));
     }
 
+    /**
+     * Rename a name with a single UPDATE ... RETURNING, without loading it first
+     */
     @Transactional
     public NameResponseDTO updateName(String uuid, String firstName, String lastName) {
-        Optional<Name> existingNameOpt = nameRepository.findByUuid(uuid);
-        if (existingNameOpt.isEmpty()) {
-            throw new RuntimeException("Name not found with uuid: " + uuid);
-        }
+        NameUpdate update = nameRepository.updateByUuidReturning(uuid, firstName, lastName)
+                .orElseThrow(() -> new RuntimeException("Name not found with uuid: " + uuid));
 
-        Name existingName = existingNameOpt.get();
-        existingName.setFirstName(firstName);
-        existingName.setLastName(lastName);
-
-        Name updatedName = nameRepository.save(existingName);
-        return convertToDTO(updatedName);
+        eventPublisher.publishEvent(NameChangedEvent.updated(update.name(),
+                update.previousFirstName(), update.previousLastName()));
+        return convertToDTO(update.name());
     }
 
+    /**
+     * Delete a name with a single DELETE, treating zero affected rows as not found
+     */
     @Transactional
     public void deleteNameByUuid(String uuid) {
-        Optional<Name> existingName = nameRepository.findByUuid(uuid);
-        if (existingName.isEmpty()) {
-            throw new RuntimeException("Name not found with uuid: " + uuid);
-        }
-        nameRepository.deleteByUuid(uuid);
+        Name deletedName = nameRepository.deleteByUuidReturning(uuid)
+                .orElseThrow(() -> new RuntimeException("Name not found with uuid: " + uuid));
+        eventPublisher.publishEvent(NameChangedEvent.deleted(deletedName));
     }
 
-    private NameResponseDTO convertToDTO(Name name) {
+    NameResponseDTO convertToDTO(Name name) {
         NameResponseDTO dto = new NameResponseDTO();
         dto.setUuid(name.getUuid());
         dto.setFirstName(name.getFirstName());
         dto.setLastName(name.getLastName());
         dto.setCreatedAt(name.getCreatedAt());
+        dto.setUpdatedAt(name.getUpdatedAt());
         return dto;
     }
 }
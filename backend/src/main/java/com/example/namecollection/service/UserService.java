@@ -3,39 +3,73 @@ package com.example.namecollection.service;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
 import com.example.namecollection.model.User;
 import com.example.namecollection.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final LastLoginUpdater lastLoginUpdater;
+    // Users already known to exist, so repeat logins skip the lookup
+    private final Cache<String, User> knownUsers;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, LastLoginUpdater lastLoginUpdater,
+            @Value("${users.known-cache.maximum-size:10000}") long knownUsersMaximumSize) {
         this.userRepository = userRepository;
+        this.lastLoginUpdater = lastLoginUpdater;
+        this.knownUsers = Caffeine.newBuilder().maximumSize(knownUsersMaximumSize).build();
     }
 
+    /**
+     * Get the authenticated user, creating them on first login. The last login time of an
+     * existing user is recorded by {@link LastLoginUpdater} and written later in a batch.
+     */
     public User getOrCreateUser(Authentication authentication) {
         Jwt jwt = (Jwt) authentication.getPrincipal();
 
         String auth0Id = jwt.getSubject();
+        LocalDateTime now = LocalDateTime.now();
+
+        User knownUser = knownUsers.getIfPresent(auth0Id);
+        if (knownUser != null) {
+            lastLoginUpdater.recordLogin(auth0Id, now);
+            return copyWithLastLogin(knownUser, now);
+        }
+
         Optional<User> existingUser = userRepository.findById(auth0Id);
 
         if (existingUser.isPresent()) {
             User user = existingUser.get();
-            user.setLastLogin(LocalDateTime.now());
-            return userRepository.save(user);
+            knownUsers.put(auth0Id, copyWithLastLogin(user, user.getLastLogin()));
+            lastLoginUpdater.recordLogin(auth0Id, now);
+            user.setLastLogin(now);
+            return user;
         } else {
             User newUser = new User();
             newUser.setAuth0Id(auth0Id);
             newUser.setEmail(jwt.getClaim("email"));
             newUser.setName(jwt.getClaim("name"));
-            newUser.setLastLogin(LocalDateTime.now());
-            return userRepository.save(newUser);
+            newUser.setLastLogin(now);
+            User savedUser = userRepository.save(newUser);
+            knownUsers.put(auth0Id, copyWithLastLogin(savedUser, now));
+            return savedUser;
         }
     }
+
+    private User copyWithLastLogin(User user, LocalDateTime lastLogin) {
+        User copy = new User();
+        copy.setAuth0Id(user.getAuth0Id());
+        copy.setEmail(user.getEmail());
+        copy.setName(user.getName());
+        copy.setLastLogin(lastLogin);
+        return copy;
+    }
 }
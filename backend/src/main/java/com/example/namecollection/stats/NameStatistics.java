@@ -0,0 +1,284 @@
+package com.example.namecollection.stats;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.namecollection.dto.NameCountDTO;
+import com.example.namecollection.dto.NameCreatedBucketDTO;
+import com.example.namecollection.dto.NameStatsDTO;
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.event.NamesImportedEvent;
+import com.example.namecollection.repository.NameAggregates;
+import com.example.namecollection.repository.NameRepository;
+
+/**
+ * Name statistics for dashboards: the total, counts per first and last name and names created
+ * per hour, held in memory.
+ *
+ * <p>
+ * When enabled with {@code names.stats.enabled}, the counts are computed from the database once
+ * the application is ready and then adjusted by every {@link NameChangedEvent}, so reading them
+ * never queries the database. Every {@code names.stats.reconcile-interval} they are recomputed
+ * and swapped in, which corrects drift from writes this instance did not see (other instances,
+ * manual SQL). Changes committed while the recount runs are replayed onto it; one committed
+ * just before the recount's snapshot can be counted twice until the next reconciliation.
+ */
+@Component
+public class NameStatistics {
+    private static final Logger logger = LoggerFactory.getLogger(NameStatistics.class);
+
+    // Smallest count first and, among equals, the alphabetically last, so it is evicted first
+    private static final Comparator<Map.Entry<String, Long>> EVICTION_ORDER = Comparator
+            .<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue)
+            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+    private final NameRepository nameRepository;
+    private final boolean enabled;
+    // Writers apply changes under the read lock; only swapping in a recount takes the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<NameChangedEvent> changesDuringReconcile =
+            Collections.synchronizedList(new ArrayList<>());
+    private final LongAdder reconcileCount = new LongAdder();
+
+    private volatile Aggregates aggregates = new Aggregates();
+    private volatile boolean reconciling;
+    private volatile LocalDateTime reconciledAt;
+
+    public NameStatistics(NameRepository nameRepository,
+            @Value("${names.stats.enabled:true}") boolean enabled) {
+        this.nameRepository = nameRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether the counts have been computed from the database at least once
+     */
+    public boolean isReady() {
+        return reconciledAt != null;
+    }
+
+    /**
+     * Number of times the counts were recomputed from the database
+     */
+    public long reconcileCount() {
+        return reconcileCount.sum();
+    }
+
+    /**
+     * The current statistics
+     *
+     * @param top the number of first and last names to list, most common first
+     * @param days the number of days, up to and including today, to count creations for
+     * @param hours the number of hours, up to and including the current one, to count
+     *        creations for
+     */
+    public NameStatsDTO snapshot(int top, int days, int hours) {
+        Aggregates current = aggregates;
+        LocalDateTime now = LocalDateTime.now();
+
+        NameStatsDTO stats = new NameStatsDTO();
+        stats.setTotal(current.total.get());
+        stats.setDistinctFirstNames(current.firstNames.size());
+        stats.setDistinctLastNames(current.lastNames.size());
+        stats.setTopFirstNames(mostCommon(current.firstNames, top));
+        stats.setTopLastNames(mostCommon(current.lastNames, top));
+        stats.setCreatedPerDay(buckets(current.createdPerHour,
+                now.truncatedTo(ChronoUnit.DAYS).minusDays(days - 1L), days, ChronoUnit.DAYS));
+        stats.setCreatedPerHour(buckets(current.createdPerHour,
+                now.truncatedTo(ChronoUnit.HOURS).minusHours(hours - 1L), hours,
+                ChronoUnit.HOURS));
+        stats.setReconciledAt(reconciledAt);
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    /**
+     * Recompute the counts from the database and swap them in
+     */
+    @Scheduled(fixedDelayString = "${names.stats.reconcile-interval:15m}",
+            initialDelayString = "${names.stats.reconcile-interval:15m}")
+    public synchronized void reconcile() {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            reconciling = true;
+            changesDuringReconcile.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Aggregates fresh;
+        try {
+            // Outside a read-only transaction, so it runs on the primary without replica lag
+            fresh = new Aggregates(nameRepository.aggregateCounts());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                reconciling = false;
+                changesDuringReconcile.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.warn("Failed to reconcile name statistics, keeping the current counts", e);
+            return;
+        }
+
+        long drift;
+        lock.writeLock().lock();
+        try {
+            changesDuringReconcile.forEach(fresh::apply);
+            changesDuringReconcile.clear();
+            reconciling = false;
+            drift = fresh.total.get() - aggregates.total.get();
+            aggregates = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (isReady() && drift != 0) {
+            logger.warn("Name statistics were off by {} names; reconciled with the database",
+                    drift);
+        }
+        reconciledAt = LocalDateTime.now();
+        reconcileCount.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNameChanged(NameChangedEvent event) {
+        if (enabled) {
+            record(List.of(event));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNamesImported(NamesImportedEvent event) {
+        if (enabled) {
+            record(event.changes());
+        }
+    }
+
+    private void record(List<NameChangedEvent> changes) {
+        lock.readLock().lock();
+        try {
+            Aggregates current = aggregates;
+            changes.forEach(current::apply);
+            if (reconciling) {
+                changesDuringReconcile.addAll(changes);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<NameCountDTO> mostCommon(Map<String, Long> counts, int limit) {
+        // A heap bounded to the limit keeps the selection at O(n log limit)
+        PriorityQueue<Map.Entry<String, Long>> mostCommon = new PriorityQueue<>(EVICTION_ORDER);
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (entry.getValue() > 0) {
+                mostCommon.add(Map.entry(entry.getKey(), entry.getValue()));
+                if (mostCommon.size() > limit) {
+                    mostCommon.poll();
+                }
+            }
+        }
+
+        List<NameCountDTO> ordered = new ArrayList<>(mostCommon.size());
+        while (!mostCommon.isEmpty()) {
+            Map.Entry<String, Long> entry = mostCommon.poll();
+            ordered.add(new NameCountDTO(entry.getKey(), entry.getValue()));
+        }
+        Collections.reverse(ordered);
+        return ordered;
+    }
+
+    private static List<NameCreatedBucketDTO> buckets(NavigableMap<LocalDateTime, Long> perHour,
+            LocalDateTime from, int count, ChronoUnit unit) {
+        List<NameCreatedBucketDTO> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = from.plus(i, unit);
+            long names = perHour.subMap(start, true, start.plus(1, unit), false).values()
+                    .stream().mapToLong(Long::longValue).sum();
+            buckets.add(new NameCreatedBucketDTO(start, names));
+        }
+        return buckets;
+    }
+
+    /**
+     * Counts that concurrent writers adjust in place
+     */
+    private static final class Aggregates {
+        private final AtomicLong total = new AtomicLong();
+        private final Map<String, Long> firstNames = new ConcurrentHashMap<>();
+        private final Map<String, Long> lastNames = new ConcurrentHashMap<>();
+        private final NavigableMap<LocalDateTime, Long> createdPerHour =
+                new ConcurrentSkipListMap<>();
+
+        Aggregates() {
+        }
+
+        Aggregates(NameAggregates counted) {
+            firstNames.putAll(counted.firstNames());
+            lastNames.putAll(counted.lastNames());
+            createdPerHour.putAll(counted.createdPerHour());
+            total.set(counted.firstNames().values().stream().mapToLong(Long::longValue).sum());
+        }
+
+        void apply(NameChangedEvent event) {
+            switch (event.type()) {
+                case CREATED -> add(event.firstName(), event.lastName(), event.createdAt(), 1);
+                case UPDATED -> {
+                    add(firstNames, event.previousFirstName(), -1);
+                    add(lastNames, event.previousLastName(), -1);
+                    add(firstNames, event.firstName(), 1);
+                    add(lastNames, event.lastName(), 1);
+                }
+                case DELETED -> add(event.firstName(), event.lastName(), event.createdAt(), -1);
+            }
+        }
+
+        private void add(String firstName, String lastName, LocalDateTime createdAt, int delta) {
+            total.addAndGet(delta);
+            add(firstNames, firstName, delta);
+            add(lastNames, lastName, delta);
+            if (createdAt != null) {
+                add(createdPerHour, createdAt.truncatedTo(ChronoUnit.HOURS), delta);
+            }
+        }
+
+        private static <K> void add(Map<K, Long> counts, K key, long delta) {
+            if (key != null) {
+                // Counts that reach zero are dropped, so removed names leave no entry behind
+                counts.merge(key, delta, (count, change) -> count + change == 0 ? null
+                        : count + change);
+            }
+        }
+    }
+}
@@ -1,15 +1,16 @@
 package com.example.namecollection.util;
 
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import com.example.namecollection.security.GrantedPermissions;
+
 /**
- * Utility class for checking user permissions
+ * Utility class for checking user permissions. Checks read the permissions compiled into the
+ * current authentication, so they are lookups rather than scans of its authorities.
  */
 @Component
 public class PermissionUtil {
@@ -26,9 +27,7 @@ public class PermissionUtil {
             return false;
         }
 
-        String formattedPermission = "SCOPE_" + permission;
-        return authentication.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals(formattedPermission));
+        return GrantedPermissions.of(authentication).hasPermission(permission);
     }
 
     /**
@@ -43,12 +42,9 @@ public class PermissionUtil {
             return false;
         }
 
-        Collection<String> authorities = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority).collect(Collectors.toList());
-
+        GrantedPermissions granted = GrantedPermissions.of(authentication);
         for (String permission : permissions) {
-            String formattedPermission = "SCOPE_" + permission;
-            if (authorities.contains(formattedPermission)) {
+            if (granted.hasPermission(permission)) {
                 return true;
             }
         }
@@ -68,12 +64,9 @@ public class PermissionUtil {
             return false;
         }
 
-        Collection<String> authorities = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority).collect(Collectors.toList());
-
+        GrantedPermissions granted = GrantedPermissions.of(authentication);
         for (String permission : permissions) {
-            String formattedPermission = "SCOPE_" + permission;
-            if (!authorities.contains(formattedPermission)) {
+            if (!granted.hasPermission(permission)) {
                 return false;
             }
         }
@@ -93,9 +86,7 @@ public class PermissionUtil {
             return false;
         }
 
-        String formattedRole = "ROLE_" + role.toUpperCase();
-        return authentication.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals(formattedRole));
+        return GrantedPermissions.of(authentication).hasRole(role.toUpperCase());
     }
 
     /**
@@ -104,15 +95,8 @@ public class PermissionUtil {
      * @return the list of permissions
      */
     public Collection<String> getUserPermissions() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) {
-            return java.util.Collections.emptyList();
-        }
-
-        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
-                .filter(authority -> authority.startsWith("SCOPE_"))
-                .map(authority -> authority.substring(6)) // Remove "SCOPE_" prefix
-                .collect(Collectors.toList());
+        return GrantedPermissions.of(SecurityContextHolder.getContext().getAuthentication())
+                .getPermissionNames();
     }
 
     /**
@@ -121,14 +105,7 @@ public class PermissionUtil {
      * @return the list of roles
      */
     public Collection<String> getUserRoles() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) {
-            return java.util.Collections.emptyList();
-        }
-
-        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority)
-                .filter(authority -> authority.startsWith("ROLE_"))
-                .map(authority -> authority.substring(5)) // Remove "ROLE_" prefix
-                .collect(Collectors.toList());
+        return GrantedPermissions.of(SecurityContextHolder.getContext().getAuthentication())
+                .getRoleNames();
     }
 }
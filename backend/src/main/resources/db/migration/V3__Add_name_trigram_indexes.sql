@@ -0,0 +1,6 @@
+-- Enable trigram matching so substring searches can be served by an index
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Trigram indexes on the lower-cased name columns used by the search query
+CREATE INDEX IF NOT EXISTS idx_names_first_name_trgm ON names USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_names_last_name_trgm ON names USING gin (lower(last_name) gin_trgm_ops);
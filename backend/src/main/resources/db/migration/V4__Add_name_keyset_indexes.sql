@@ -0,0 +1,5 @@
+-- Composite indexes matching the cursor pagination sort orders, with id as the tiebreaker,
+-- so each page is a short index range scan regardless of how deep the client has scrolled
+CREATE INDEX IF NOT EXISTS idx_names_first_name_id ON names(first_name, id);
+CREATE INDEX IF NOT EXISTS idx_names_last_name_id ON names(last_name, id);
+CREATE INDEX IF NOT EXISTS idx_names_created_at_id ON names(created_at, id);
@@ -0,0 +1,3 @@
+-- Hand out ids in blocks of 50 so Hibernate can assign ids without an INSERT round trip and
+-- batch the inserts. Must match allocationSize on Name.id.
+ALTER SEQUENCE names_id_seq INCREMENT BY 50;
@@ -0,0 +1,7 @@
+-- Time each name was last written, used to answer conditional GETs for a single name
+ALTER TABLE names ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+
+UPDATE names SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+
+ALTER TABLE names ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE names ALTER COLUMN updated_at SET NOT NULL;
@@ -0,0 +1,18 @@
+-- Precomputed search keys for phonetic and fuzzy search (see NameKeys): folded names and
+-- Double Metaphone codes, each with its own index
+ALTER TABLE names ADD COLUMN IF NOT EXISTS first_name_folded VARCHAR(100);
+ALTER TABLE names ADD COLUMN IF NOT EXISTS last_name_folded VARCHAR(100);
+ALTER TABLE names ADD COLUMN IF NOT EXISTS first_name_phonetic VARCHAR(16);
+ALTER TABLE names ADD COLUMN IF NOT EXISTS last_name_phonetic VARCHAR(16);
+
+-- Lower-casing covers the folded form of ASCII names. Phonetic codes can't be computed here;
+-- NameSearchKeyBackfill fills in every row still missing them, accents included
+UPDATE names SET first_name_folded = lower(first_name), last_name_folded = lower(last_name)
+WHERE first_name_folded IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_names_first_name_phonetic ON names(first_name_phonetic);
+CREATE INDEX IF NOT EXISTS idx_names_last_name_phonetic ON names(last_name_phonetic);
+CREATE INDEX IF NOT EXISTS idx_names_first_name_folded_trgm ON names USING gin (first_name_folded gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_names_last_name_folded_trgm ON names USING gin (last_name_folded gin_trgm_ops);
+-- Rows the backfill still has to visit
+CREATE INDEX IF NOT EXISTS idx_names_missing_search_keys ON names(id) WHERE first_name_phonetic IS NULL;
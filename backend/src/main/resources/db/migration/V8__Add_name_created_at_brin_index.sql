@@ -0,0 +1,5 @@
+-- Block-range summary of created_at for time-range histograms. Names are appended roughly in
+-- creation order, so a range of creation times maps to a few block ranges and a histogram
+-- reads only those blocks. The index is a few pages in size, unlike the (created_at, id)
+-- btree kept for cursor pages, which is walked entry by entry
+CREATE INDEX IF NOT EXISTS idx_names_created_at_brin ON names USING brin (created_at);
@@ -0,0 +1,22 @@
+-- A single-row counter bumped by every statement that writes to names, whichever instance runs
+-- it. Search page ETags are derived from it, so a conditional GET is answered with one primary
+-- key lookup instead of running the search. Statement-level, so a COPY import or a bulk update
+-- bumps it once; writers hold the row lock until they commit
+CREATE TABLE IF NOT EXISTS names_version (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL
+);
+
+INSERT INTO names_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION bump_names_version() RETURNS trigger AS $$
+BEGIN
+    UPDATE names_version SET version = version + 1 WHERE id = 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS names_version_bump ON names;
+CREATE TRIGGER names_version_bump
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON names
+    FOR EACH STATEMENT EXECUTE FUNCTION bump_names_version();
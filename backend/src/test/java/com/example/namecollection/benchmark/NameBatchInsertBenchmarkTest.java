@@ -0,0 +1,116 @@
+package com.example.namecollection.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameRepository;
+import com.example.namecollection.search.NameSearchIndex;
+import com.example.namecollection.service.NameCountEstimator;
+import com.example.namecollection.service.NameService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares insert throughput of one name per transaction (what one POST /api/names per row
+ * costs) with the batch path used by POST /api/names/batch. Run with
+ * {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({NameService.class, NameSearchIndex.class, NameCountEstimator.class})
+public class NameBatchInsertBenchmarkTest {
+
+    private static final int ROWS = 20_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private NameService nameService;
+
+    @Autowired
+    private NameRepository nameRepository;
+
+    @BeforeEach
+    void setUp() {
+        nameRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareSingleAndBatchInserts() {
+        // Warm up connections, statement caches and the JIT on both paths
+        insertOneByOne(2_000);
+        insertInBatches(2_000);
+        nameRepository.deleteAllInBatch();
+
+        long singleNanos = time(() -> insertOneByOne(ROWS));
+        long batchNanos = time(() -> insertInBatches(ROWS));
+
+        double singleRate = ROWS / (singleNanos / 1e9);
+        double batchRate = ROWS / (batchNanos / 1e9);
+        System.out.printf("Single inserts: %,.0f rows/sec%n", singleRate);
+        System.out.printf("Batch inserts:  %,.0f rows/sec (%.1fx)%n", batchRate,
+                batchRate / singleRate);
+
+        assertEquals(2L * ROWS, nameRepository.count());
+    }
+
+    private void insertOneByOne(int rows) {
+        for (int i = 0; i < rows; i++) {
+            nameService.saveName(newName(i));
+        }
+    }
+
+    private void insertInBatches(int rows) {
+        for (int start = 0; start < rows; start += BATCH_SIZE) {
+            List<Name> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = start; i < Math.min(rows, start + BATCH_SIZE); i++) {
+                batch.add(newName(i));
+            }
+            nameService.saveNames(batch);
+        }
+    }
+
+    private static Name newName(int i) {
+        Name name = new Name();
+        name.setFirstName("First" + i);
+        name.setLastName("Last" + i);
+        return name;
+    }
+
+    private static long time(Runnable runnable) {
+        long start = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - start;
+    }
+}
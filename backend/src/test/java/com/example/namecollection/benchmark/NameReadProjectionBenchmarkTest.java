@@ -0,0 +1,134 @@
+package com.example.namecollection.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.repository.NameRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares reading a page as managed entities (then copied into DTOs) with the DTO projection
+ * used by the read paths, reporting latency and bytes allocated per page. Run with
+ * {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class NameReadProjectionBenchmarkTest {
+
+    private static final int ROWS = 50_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGES = 2_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private NameRepository nameRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        if (nameRepository.count() == 0) {
+            jdbcTemplate.execute("""
+                    INSERT INTO names (id, uuid, first_name, last_name)
+                    SELECT nextval('names_id_seq'), gen_random_uuid()::text, 'First' || g,
+                        'Last' || g
+                    FROM generate_series(1, %d) g""".formatted(ROWS));
+        }
+    }
+
+    @Test
+    void compareEntityAndProjectionPages() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        IntSupplier entityPage = () -> readWrite.execute(status -> {
+            List<NameResponseDTO> content = nameRepository.findAll(nextPage()).stream()
+                    .map(name -> new NameResponseDTO(name.getUuid(), name.getFirstName(),
+                            name.getLastName(), name.getCreatedAt(), name.getUpdatedAt()))
+                    .toList();
+            return content.size();
+        });
+        IntSupplier projectedPage = () -> readOnly
+                .execute(status -> nameRepository.findResponsePage(nextPage()).getContent().size());
+
+        // Warm up connections, statement caches and the JIT on both paths
+        run(entityPage, PAGES / 4);
+        run(projectedPage, PAGES / 4);
+
+        long[] entity = run(entityPage, PAGES);
+        long[] projected = run(projectedPage, PAGES);
+
+        System.out.printf("Entities + copy:  %,8.1f us/page  %,10d bytes/page%n",
+                entity[0] / 1e3 / PAGES, entity[1] / PAGES);
+        System.out.printf("DTO projection:   %,8.1f us/page  %,10d bytes/page (%.1fx less)%n",
+                projected[0] / 1e3 / PAGES, projected[1] / PAGES,
+                (double) entity[1] / Math.max(projected[1], 1));
+
+        assertEquals(PAGE_SIZE, entityPage.getAsInt());
+        assertEquals(PAGE_SIZE, projectedPage.getAsInt());
+    }
+
+    private int page;
+
+    private Pageable nextPage() {
+        page = (page + 1) % (ROWS / PAGE_SIZE);
+        return PageRequest.of(page, PAGE_SIZE, Sort.by("id"));
+    }
+
+    /**
+     * @return the elapsed nanoseconds and the bytes allocated by this thread
+     */
+    private static long[] run(IntSupplier pageReader, int pages) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < pages; i++) {
+            pageReader.getAsInt();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new long[] {elapsed, threads.getCurrentThreadAllocatedBytes() - allocatedBefore};
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.namecollection.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.namecollection.config.ConnectionLimitingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test for the virtual-thread mode, modelling request handling rather than calling the
+ * HTTP endpoints. A burst of tasks shaped like the API's traffic is replayed against a small
+ * pool during a slow-database episode: most stand in for cached reads and only sleep briefly,
+ * the rest run a slow query. On a fixed pool of 200 platform threads, as Tomcat has, the
+ * database tasks occupy the threads and the cached ones queue behind them; with a virtual
+ * thread per task and the connection limiter only the database tasks wait. Tomcat, security and
+ * serialization overhead are not measured. Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+public class VirtualThreadLoadBenchmarkTest {
+
+    private static final int REQUESTS = 5_000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    // One in five requests needs the database
+    private static final int DATABASE_REQUEST_EVERY = 5;
+    private static final Duration CACHED_REQUEST_TIME = Duration.ofMillis(2);
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        try (HikariDataSource pool = newPool()) {
+            // Warm up connections and the JIT on both paths
+            runBurst(pool, Executors.newFixedThreadPool(PLATFORM_THREADS), 500);
+            runBurst(limited(pool), Executors.newVirtualThreadPerTaskExecutor(), 500);
+
+            Result platform =
+                    runBurst(pool, Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS);
+            Result virtual = runBurst(limited(pool), Executors.newVirtualThreadPerTaskExecutor(),
+                    REQUESTS);
+
+            print("Platform threads (" + PLATFORM_THREADS + ")", platform);
+            print("Virtual threads", virtual);
+
+            assertEquals(0, platform.failures());
+            assertEquals(0, virtual.failures());
+        }
+    }
+
+    private Result runBurst(DataSource dataSource, ExecutorService executor, int requests)
+            throws Exception {
+        long start = System.nanoTime();
+        List<Future<Long>> futures = new ArrayList<>(requests);
+        try (executor) {
+            for (int i = 0; i < requests; i++) {
+                boolean needsDatabase = i % DATABASE_REQUEST_EVERY == 0;
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    if (needsDatabase) {
+                        slowQuery(dataSource);
+                    } else {
+                        Thread.sleep(CACHED_REQUEST_TIME);
+                    }
+                    return System.nanoTime() - submitted;
+                }));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] latencies = new long[requests];
+        int failures = 0;
+        for (int i = 0; i < requests; i++) {
+            try {
+                latencies[i] = futures.get(i).get();
+            } catch (Exception e) {
+                failures++;
+            }
+        }
+        Arrays.sort(latencies);
+        return new Result(requests / (elapsed / 1e9), percentile(latencies, 0.50),
+                percentile(latencies, 0.99), failures);
+    }
+
+    private static void slowQuery(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement =
+                        connection.prepareStatement("SELECT pg_sleep(0.02)")) {
+            statement.execute();
+        }
+    }
+
+    private static HikariDataSource newPool() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(postgres.getJdbcUrl());
+        config.setUsername(postgres.getUsername());
+        config.setPassword(postgres.getPassword());
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(60_000);
+        return new HikariDataSource(config);
+    }
+
+    private static DataSource limited(DataSource pool) {
+        return new ConnectionLimitingDataSource(pool, POOL_SIZE, Duration.ofMinutes(1));
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("%-24s %,8.0f req/sec  p50 %,8.1f ms  p99 %,8.1f ms%n", label,
+                result.throughput(), result.p50Millis(), result.p99Millis());
+    }
+
+    private record Result(double throughput, double p50Millis, double p99Millis, int failures) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.namecollection.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.example.namecollection.config.CacheConfig;
+import com.example.namecollection.dto.NameSearchCriteriaDTO;
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.model.Name;
+
+public class NameCachesTest {
+
+    private CacheManager cacheManager;
+    private NameCaches nameCaches;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager(true, Duration.ofMinutes(1), 100,
+                Duration.ofMinutes(1), 100);
+        nameCaches = new NameCaches(cacheManager);
+    }
+
+    @Test
+    void pageKey_ShouldNormaliseEquivalentCriteria() {
+        // Arrange
+        NameSearchCriteriaDTO first = criteria("  JoHn ");
+        first.setSortDirection("desc");
+        NameSearchCriteriaDTO second = criteria("john");
+        second.setSortDirection("DESC");
+
+        // Act & Assert
+        assertEquals(NamePageKey.of(first), NamePageKey.of(second));
+    }
+
+    @Test
+    void onNameChanged_Created_ShouldEvictOnlyMatchingAndUnfilteredPages() {
+        // Arrange
+        Cache pages = cacheManager.getCache(NameCaches.NAME_PAGES);
+        NamePageKey all = NamePageKey.of(criteria(null));
+        NamePageKey john = NamePageKey.of(criteria("joh"));
+        NamePageKey jane = NamePageKey.of(criteria("jane"));
+        pages.put(all, "all");
+        pages.put(john, "john");
+        pages.put(jane, "jane");
+
+        // Act
+        nameCaches.onNameChanged(NameChangedEvent.created(name("John", "Smith")));
+
+        // Assert
+        assertNull(pages.get(all));
+        assertNull(pages.get(john));
+        assertNotNull(pages.get(jane));
+    }
+
+    @Test
+    void onNameChanged_Updated_ShouldEvictPagesMatchingOldOrNewName() {
+        // Arrange
+        Cache pages = cacheManager.getCache(NameCaches.NAME_PAGES);
+        Cache namesByUuid = cacheManager.getCache(NameCaches.NAMES_BY_UUID);
+        Name name = name("Jane", "Smith");
+        NamePageKey oldName = NamePageKey.of(criteria("john"));
+        NamePageKey newName = NamePageKey.of(criteria("jane"));
+        NamePageKey unrelated = NamePageKey.of(criteria("mia"));
+        pages.put(oldName, "old");
+        pages.put(newName, "new");
+        pages.put(unrelated, "unrelated");
+        namesByUuid.put(name.getUuid(), "name");
+
+        // Act
+        nameCaches.onNameChanged(NameChangedEvent.updated(name, "John", "Smith"));
+
+        // Assert
+        assertNull(pages.get(oldName));
+        assertNull(pages.get(newName));
+        assertNotNull(pages.get(unrelated));
+        assertNull(namesByUuid.get(name.getUuid()));
+    }
+
+    @Test
+    void stats_ShouldReportHitsAndMisses() {
+        // Arrange
+        Cache namesByUuid = cacheManager.getCache(NameCaches.NAMES_BY_UUID);
+        namesByUuid.put("uuid", "name");
+        namesByUuid.get("uuid");
+        namesByUuid.get("missing");
+
+        // Act
+        Map<String, Map<String, Object>> stats = nameCaches.stats();
+
+        // Assert
+        assertEquals(1L, stats.get(NameCaches.NAMES_BY_UUID).get("hitCount"));
+        assertEquals(1L, stats.get(NameCaches.NAMES_BY_UUID).get("missCount"));
+        assertEquals(1L, stats.get(NameCaches.NAMES_BY_UUID).get("size"));
+    }
+
+    private NameSearchCriteriaDTO criteria(String searchTerm) {
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSearchTerm(searchTerm);
+        return criteria;
+    }
+
+    private Name name(String firstName, String lastName) {
+        Name name = new Name();
+        name.setId(1L);
+        name.setUuid("uuid-" + firstName);
+        name.setFirstName(firstName);
+        name.setLastName(lastName);
+        name.setCreatedAt(LocalDateTime.now());
+        return name;
+    }
+}
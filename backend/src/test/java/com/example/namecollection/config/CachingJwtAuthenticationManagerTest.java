@@ -0,0 +1,99 @@
+package com.example.namecollection.config;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingJwtAuthenticationManagerTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Mock
+    private AuthenticationManager delegate;
+
+    private CachingJwtAuthenticationManager authenticationManager;
+
+    @BeforeEach
+    void setUp() {
+        authenticationManager = new CachingJwtAuthenticationManager(delegate, 100,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void authenticate_SameToken_ShouldVerifyOnce() {
+        // Arrange
+        when(delegate.authenticate(any()))
+                .thenReturn(authentication("token-a", NOW.plusSeconds(60)));
+
+        // Act
+        Authentication first = authenticationManager.authenticate(bearer("token-a"));
+        Authentication second = authenticationManager.authenticate(bearer("token-a"));
+
+        // Assert
+        verify(delegate, times(1)).authenticate(any());
+        assertNotSame(first, second);
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertEquals("user-1", second.getName());
+        assertEquals(1, authenticationManager.getCache().stats().hitCount());
+    }
+
+    @Test
+    void authenticate_DifferentTokens_ShouldVerifyEach() {
+        // Arrange
+        when(delegate.authenticate(any()))
+                .thenReturn(authentication("token-a", NOW.plusSeconds(60)))
+                .thenReturn(authentication("token-b", NOW.plusSeconds(60)));
+
+        // Act
+        authenticationManager.authenticate(bearer("token-a"));
+        authenticationManager.authenticate(bearer("token-b"));
+
+        // Assert
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_ExpiredToken_ShouldNotBeReused() {
+        // Arrange
+        when(delegate.authenticate(any()))
+                .thenReturn(authentication("token-a", NOW.minusSeconds(1)));
+
+        // Act
+        authenticationManager.authenticate(bearer("token-a"));
+        authenticationManager.authenticate(bearer("token-a"));
+
+        // Assert
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    private BearerTokenAuthenticationToken bearer(String token) {
+        return new BearerTokenAuthenticationToken(token);
+    }
+
+    private JwtAuthenticationToken authentication(String token, Instant expiresAt) {
+        Jwt jwt = Jwt.withTokenValue(token).header("alg", "RS256").subject("user-1")
+                .issuedAt(NOW.minusSeconds(60)).expiresAt(expiresAt).build();
+        return new JwtAuthenticationToken(jwt,
+                List.of(new SimpleGrantedAuthority("SCOPE_read:names")), "user-1");
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.namecollection.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes between two independent Postgres containers standing in for a primary and a replica;
+ * each query reports which database it ran on. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class ReadReplicaRoutingTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> primaryDatabase =
+            new PostgreSQLContainer<>("postgres:14-alpine").withDatabaseName("primary");
+
+    @Container
+    private static final PostgreSQLContainer<?> replicaDatabase =
+            new PostgreSQLContainer<>("postgres:14-alpine").withDatabaseName("replica");
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private ReadReplicaRouting routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primaryPool = pool(primaryDatabase);
+        replicaPool = pool(replicaDatabase);
+        routing = new ReadReplicaRouting(primaryPool, Map.of("replica-0", replicaPool),
+                Duration.ofSeconds(5));
+
+        DataSourceTransactionManager transactionManager =
+                new DataSourceTransactionManager(routing.getDataSource());
+        jdbcTemplate = new JdbcTemplate(routing.getDataSource());
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        routing.close();
+        primaryPool.close();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldRunOnReplica() {
+        // Act & Assert
+        assertEquals("replica", currentDatabase(readOnly));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldRunOnPrimary() {
+        // Act & Assert
+        assertEquals("primary", currentDatabase(readWrite));
+    }
+
+    @Test
+    void readOnlyTransaction_AfterAWrite_ShouldReadFromPrimaryForTheSameUserOnly() {
+        // Arrange
+        signIn("alice");
+        currentDatabase(readWrite);
+
+        // Act
+        String aliceReads = currentDatabase(readOnly);
+        signIn("bob");
+        String bobReads = currentDatabase(readOnly);
+
+        // Assert
+        assertEquals("primary", aliceReads);
+        assertEquals("replica", bobReads);
+    }
+
+    @Test
+    void sharedCacheFill_AfterAnotherUsersWrite_ShouldReadFromPrimary() {
+        // Arrange
+        signIn("alice");
+        currentDatabase(readWrite);
+        signIn("bob");
+
+        // Act
+        String cacheFillReads = ReadReplicaRouting.fillingSharedCache(
+                () -> currentDatabase(readOnly));
+        String plainReads = currentDatabase(readOnly);
+
+        // Assert
+        assertEquals("primary", cacheFillReads);
+        assertEquals("replica", plainReads);
+    }
+
+    @Test
+    void sharedCacheFill_WithoutRecentWrites_ShouldReadFromReplica() {
+        // Act & Assert
+        assertEquals("replica",
+                ReadReplicaRouting.fillingSharedCache(() -> currentDatabase(readOnly)));
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaIsDown_ShouldFallBackToPrimary() {
+        // Arrange
+        replicaPool.close();
+
+        // Act
+        String database = currentDatabase(readOnly);
+        routing.checkHealth();
+
+        // Assert
+        assertEquals("primary", database);
+        assertEquals(1, routing.primaryFallbackCount());
+        assertEquals(0, routing.healthyReplicaCount());
+    }
+
+    private String currentDatabase(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(
+                status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken(user, null, "read:names"));
+    }
+
+    private static HikariDataSource pool(PostgreSQLContainer<?> database) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(database.getJdbcUrl());
+        pool.setUsername(database.getUsername());
+        pool.setPassword(database.getPassword());
+        pool.setMaximumPoolSize(2);
+        pool.setConnectionTimeout(2000);
+        return pool;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.namecollection.config;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class TimedJwtDecoderTest {
+
+    @Mock
+    private JwtDecoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decoder = new TimedJwtDecoder(delegate, meterRegistry);
+    }
+
+    @Test
+    void decode_ShouldRecordSuccessfulDecodes() {
+        // Arrange
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user-1")
+                .expiresAt(Instant.now().plusSeconds(60)).build();
+        when(delegate.decode("token")).thenReturn(jwt);
+
+        // Act
+        Jwt result = decoder.decode("token");
+
+        // Assert
+        assertSame(jwt, result);
+        assertEquals(1, meterRegistry.get(TimedJwtDecoder.METRIC_NAME).tag("outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    void decode_ShouldRecordFailedDecodes() {
+        // Arrange
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("bad signature"));
+
+        // Act & Assert
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertEquals(1, meterRegistry.get(TimedJwtDecoder.METRIC_NAME).tag("outcome", "failure")
+                .timer().count());
+    }
+}
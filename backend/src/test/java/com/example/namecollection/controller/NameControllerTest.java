@@ -0,0 +1,231 @@
+package com.example.namecollection.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.namecollection.cache.NameCaches;
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.dto.NameSearchCriteriaDTO;
+import com.example.namecollection.dto.PageDTO;
+import com.example.namecollection.feed.NameChangeFeed;
+import com.example.namecollection.search.NameSuggestionIndex;
+import com.example.namecollection.service.BulkFormat;
+import com.example.namecollection.service.NameImportService;
+import com.example.namecollection.service.NameService;
+import com.example.namecollection.stats.NameStatistics;
+import com.example.namecollection.util.PermissionUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Drives the controller through MockMvc with its services mocked. Route permissions are
+ * enforced by the security filter chain, which is not part of this setup.
+ */
+@ExtendWith(MockitoExtension.class)
+public class NameControllerTest {
+
+    @Mock
+    private NameService nameService;
+
+    @Mock
+    private NameImportService nameImportService;
+
+    @Mock
+    private NameSuggestionIndex nameSuggestionIndex;
+
+    @Mock
+    private NameStatistics nameStatistics;
+
+    @Mock
+    private NameChangeFeed nameChangeFeed;
+
+    @Mock
+    private NameCaches nameCaches;
+
+    @Mock
+    private PermissionUtil permissionUtil;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        NameController controller = new NameController(nameService, nameImportService,
+                nameSuggestionIndex, nameStatistics, nameChangeFeed, nameCaches, permissionUtil,
+                objectMapper, new MappingJackson2CborHttpMessageConverter(),
+                new MappingJackson2SmileHttpMessageConverter(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 1000);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void searchNames_WithMatchingIfNoneMatch_ShouldAnswer304WithoutSearching() throws Exception {
+        // Arrange
+        when(nameService.getNamesVersion()).thenReturn(7L);
+        when(nameService.getNames(any(NameSearchCriteriaDTO.class)))
+                .thenReturn(page(name("1", "John")));
+        String eTag = mockMvc.perform(get("/api/names/search").param("searchTerm", "jo"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/names/search").param("searchTerm", "jo")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        verify(nameService, times(1)).getNames(any(NameSearchCriteriaDTO.class));
+    }
+
+    @Test
+    void searchNames_ForAcceptHeadersNegotiatingTheSameType_ShouldShareAnETag()
+            throws Exception {
+        // Arrange
+        when(nameService.getNamesVersion()).thenReturn(7L);
+        when(nameService.getNames(any(NameSearchCriteriaDTO.class))).thenReturn(page());
+        String eTag = mockMvc.perform(get("/api/names/search").param("searchTerm", "jo")
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/names/search").param("searchTerm", "jo")
+                .header(HttpHeaders.ACCEPT, "text/html;q=0.9, */*;q=0.8")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void searchNames_WhenTheNamesChanged_ShouldAnswer200WithANewETag() throws Exception {
+        // Arrange
+        when(nameService.getNamesVersion()).thenReturn(7L).thenReturn(8L);
+        when(nameService.getNames(any(NameSearchCriteriaDTO.class)))
+                .thenReturn(page(name("1", "John")))
+                .thenReturn(page(name("1", "Joan")));
+        String eTag = mockMvc.perform(get("/api/names/search").param("searchTerm", "jo"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        String newETag = mockMvc.perform(get("/api/names/search").param("searchTerm", "jo")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].firstName").value("Joan"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Assert
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    void searchNames_ForDifferentSearchesWithEqualHashCodes_ShouldNotShareAnETag()
+            throws Exception {
+        // Arrange
+        when(nameService.getNames(any(NameSearchCriteriaDTO.class))).thenReturn(page());
+        // "Aa" and "BB" have the same String.hashCode()
+        String eTag = mockMvc.perform(get("/api/names/search").param("searchTerm", "Aa"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/names/search").param("searchTerm", "BB")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void exportNames_ShouldStreamTheServicesCsvAsAnAttachment() throws Exception {
+        // Arrange
+        ArgumentCaptor<NameSearchCriteriaDTO> criteria =
+                ArgumentCaptor.forClass(NameSearchCriteriaDTO.class);
+        when(nameService.exportNames(criteria.capture(), eq(BulkFormat.CSV), any()))
+                .thenAnswer(writing("uuid,firstName\n1,John\n"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/names/export").param("searchTerm", "jo"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"names.csv\""))
+                .andExpect(content().string("uuid,firstName\n1,John\n"));
+        assertEquals("jo", criteria.getValue().getSearchTerm());
+    }
+
+    @Test
+    void exportNames_AcceptingNdjsonAndGzip_ShouldCompressNdjson() throws Exception {
+        // Arrange
+        when(nameService.exportNames(any(), eq(BulkFormat.NDJSON), any()))
+                .thenAnswer(writing("{\"uuid\":\"1\"}\n"));
+
+        // Act
+        MockHttpServletResponse response = mockMvc.perform(get("/api/names/export")
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        // Assert
+        try (GZIPInputStream body = new GZIPInputStream(
+                new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals("{\"uuid\":\"1\"}\n",
+                    new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Answer<Long> writing(String body) {
+        return invocation -> {
+            invocation.getArgument(2, OutputStream.class)
+                    .write(body.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        };
+    }
+
+    private static PageDTO<NameResponseDTO> page(NameResponseDTO... names) {
+        PageDTO<NameResponseDTO> page = new PageDTO<>();
+        page.setContent(List.of(names));
+        page.setPageSize(10);
+        page.setTotalElements(names.length);
+        page.setTotalPages(1);
+        page.setFirst(true);
+        page.setLast(true);
+        page.setTotalMode("exact");
+        return page;
+    }
+
+    private static NameResponseDTO name(String uuid, String firstName) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        return new NameResponseDTO(uuid, firstName, "Doe", createdAt, createdAt);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.namecollection.feed;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ChangeRingTest {
+
+    @Test
+    void constructor_ShouldRoundTheCapacityUpToAPowerOfTwo() {
+        // Act & Assert
+        assertEquals(8, new ChangeRing(5).capacity());
+        assertEquals(4096, new ChangeRing(4096).capacity());
+    }
+
+    @Test
+    void read_ShouldReturnPublishedEntriesInOrder() {
+        // Arrange
+        ChangeRing ring = new ChangeRing(4);
+
+        // Act
+        long first = ring.publish("created", "John");
+        long second = ring.publish("deleted", "Jane");
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(2, ring.head());
+        assertEquals(new ChangeRing.Entry(0, "created", "John"), ring.read(0));
+        assertEquals(new ChangeRing.Entry(1, "deleted", "Jane"), ring.read(1));
+    }
+
+    @Test
+    void read_ShouldReturnNullForEntriesNotPublishedYet() {
+        // Arrange
+        ChangeRing ring = new ChangeRing(4);
+        ring.publish("created", "John");
+
+        // Act & Assert
+        assertNull(ring.read(1));
+        assertNull(ring.read(2));
+    }
+
+    @Test
+    void read_ShouldReportEntriesOverwrittenByALaterLap() {
+        // Arrange
+        ChangeRing ring = new ChangeRing(4);
+        for (int i = 0; i < 6; i++) {
+            ring.publish("created", i);
+        }
+
+        // Act & Assert
+        assertSame(ChangeRing.LAPPED, ring.read(0));
+        assertSame(ChangeRing.LAPPED, ring.read(1));
+        assertEquals(2, ring.read(2).data());
+        assertEquals(5, ring.read(5).data());
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.namecollection.feed;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.model.Name;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Streams the feed through MockMvc, which writes each event to the mock response as it is sent
+ */
+public class NameChangeFeedTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private NameChangeFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        if (feed != null) {
+            feed.close();
+        }
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayTheChangesAfterIt() throws Exception {
+        // Arrange
+        feed = feed(8, 10);
+        publish("John", "Jane", "Mia");
+
+        // Act
+        String stream = awaitStream(NameChangeFeed.eventId(0), "id:" + NameChangeFeed.eventId(2));
+
+        // Assert
+        assertFalse(stream.contains("John"));
+        assertTrue(stream.indexOf("Jane") < stream.indexOf("Mia"));
+        assertTrue(stream.contains("id:" + NameChangeFeed.eventId(1)));
+    }
+
+    @Test
+    void subscribe_AfterTheRingWrappedPastLastEventId_ShouldSendResync() throws Exception {
+        // Arrange
+        feed = feed(4, 10);
+        publish("A", "B", "C", "D", "E", "F");
+
+        // Act
+        String stream = awaitStream(NameChangeFeed.eventId(0), "event:resync");
+
+        // Assert
+        assertTrue(stream.contains("data:missed"));
+        assertEquals(1, feed.resyncCount());
+    }
+
+    @Test
+    void subscribe_WithLastEventIdFromAnotherRun_ShouldSendResync() throws Exception {
+        // Arrange
+        feed = feed(8, 10);
+        publish("John");
+
+        // Act
+        String stream = awaitStream("0-0", "event:resync");
+
+        // Assert
+        assertFalse(stream.contains("John"));
+    }
+
+    @Test
+    void subscribe_Concurrently_ShouldNotExceedTheSubscriberLimit() throws Exception {
+        // Arrange
+        feed = feed(8, 10);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<SseEmitter>>> attempts = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 64; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    return feed.subscribe(null);
+                }));
+            }
+            start.countDown();
+        }
+
+        // Assert
+        long subscribed = 0;
+        for (Future<Optional<SseEmitter>> attempt : attempts) {
+            subscribed += attempt.get().isPresent() ? 1 : 0;
+        }
+        assertEquals(10, subscribed);
+        assertEquals(10, feed.subscriberCount());
+    }
+
+    private static NameChangeFeed feed(int bufferSize, int maxSubscribers) {
+        return new NameChangeFeed(bufferSize, maxSubscribers, Duration.ofSeconds(15),
+                Duration.ofMinutes(1));
+    }
+
+    private void publish(String... firstNames) {
+        for (String firstName : firstNames) {
+            Name name = new Name();
+            name.setUuid(firstName + "-uuid");
+            name.setFirstName(firstName);
+            name.setLastName("Doe");
+            feed.onNameChanged(NameChangedEvent.created(name));
+        }
+    }
+
+    /**
+     * Subscribe as a reconnecting client and wait until the stream contains the expected text
+     */
+    private String awaitStream(String lastEventId, String expected) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new FeedController(feed)).build();
+        MvcResult result = mockMvc.perform(get("/changes").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        String stream = result.getResponse().getContentAsString();
+        while (!stream.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stream = result.getResponse().getContentAsString();
+        }
+        assertTrue(stream.contains(expected), "Expected " + expected + " in " + stream);
+        return stream;
+    }
+
+    @RestController
+    static class FeedController {
+        private final NameChangeFeed feed;
+
+        FeedController(NameChangeFeed feed) {
+            this.feed = feed;
+        }
+
+        @GetMapping("/changes")
+        SseEmitter changes(@RequestHeader("Last-Event-ID") String lastEventId) {
+            return feed.subscribe(lastEventId).orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.namecollection.logging;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.FilterChain;
+
+public class AccessLogFilterTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    void shouldLog_ShouldSampleFastRequests() {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(0.1, Duration.ofSeconds(1), false);
+
+        // Act & Assert
+        assertTrue(filter.shouldLog(200, FAST, 0.05));
+        assertFalse(filter.shouldLog(200, FAST, 0.5));
+    }
+
+    @Test
+    void shouldLog_ShouldAlwaysLogSlowRequestsAndServerErrors() {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(0.0, Duration.ofSeconds(1), false);
+
+        // Act & Assert
+        assertTrue(filter.shouldLog(200, SLOW, 0.99));
+        assertTrue(filter.shouldLog(500, FAST, 0.99));
+        assertFalse(filter.shouldLog(404, FAST, 0.0));
+    }
+
+    @Test
+    void shouldLog_ShouldSkipFastRequestsInSlowOnlyMode() {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(1.0, Duration.ofSeconds(1), true);
+
+        // Act & Assert
+        assertFalse(filter.shouldLog(200, FAST, 0.0));
+        assertTrue(filter.shouldLog(200, SLOW, 0.0));
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidSampleRate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AccessLogFilter(1.5, Duration.ofSeconds(1), false));
+    }
+
+    @Test
+    void doFilter_ShouldPassRequestThrough() throws Exception {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(1.0, Duration.ofSeconds(1), false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/names/search");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(request, chain.getRequest());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void doFilter_WhenTheChainThrows_ShouldLogAServerError() {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(0.0, Duration.ofSeconds(1), true);
+        FilterChain failing = (request, response) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        // Act
+        List<ILoggingEvent> events = captureAccessLog(() -> assertThrows(
+                IllegalStateException.class, () -> filter.doFilter(
+                        new MockHttpServletRequest("GET", "/api/names"),
+                        new MockHttpServletResponse(), failing)));
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals(500, keyValue(events.get(0), "status"));
+    }
+
+    @Test
+    void doFilter_AfterTheSecurityChain_ShouldLogTheAuthenticatedUser() {
+        // Arrange
+        AccessLogFilter filter = new AccessLogFilter(1.0, Duration.ofSeconds(1), false);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/names");
+        // What the bearer token filter leaves behind after clearing the security context
+        FilterChain authenticating = (req, res) -> new RequestAttributeSecurityContextRepository()
+                .saveContext(new SecurityContextImpl(new TestingAuthenticationToken("user-1",
+                        null, "read:names")), request, (MockHttpServletResponse) res);
+
+        // Act
+        List<ILoggingEvent> events = captureAccessLog(
+                () -> filter.doFilter(request, new MockHttpServletResponse(), authenticating));
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals("user-1", keyValue(events.get(0), "user"));
+    }
+
+    private static List<ILoggingEvent> captureAccessLog(Executable action) {
+        Logger accessLogger = (Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER_NAME);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        accessLogger.addAppender(appender);
+        try {
+            assertDoesNotThrow(action);
+        } finally {
+            accessLogger.detachAppender(appender);
+        }
+        return appender.list;
+    }
+
+    private static Object keyValue(ILoggingEvent event, String key) {
+        return event.getKeyValuePairs().stream().filter(pair -> pair.key.equals(key))
+                .findFirst().orElseThrow().value;
+    }
+}
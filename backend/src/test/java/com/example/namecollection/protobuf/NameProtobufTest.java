@@ -0,0 +1,71 @@
+package com.example.namecollection.protobuf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.dto.PageDTO;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+
+public class NameProtobufTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15,
+            123_456_000);
+
+    @Test
+    void writePage_ShouldRoundTrip() throws IOException {
+        // Arrange
+        PageDTO<NameResponseDTO> page = new PageDTO<>();
+        page.setContent(List.of(name("a", "John", "Doe", CREATED_AT),
+                name("b", "Jane", "Smith", null)));
+        page.setPageNumber(2);
+        page.setPageSize(2);
+        page.setTotalElements(-1);
+        page.setTotalPages(-1);
+        page.setLast(true);
+        page.setTotalMode("none");
+
+        // Act
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        NameProtobuf.writePage(out, page);
+        out.flush();
+        PageDTO<NameResponseDTO> result =
+                NameProtobuf.readPage(CodedInputStream.newInstance(bytes.toByteArray()));
+
+        // Assert
+        assertEquals(page, result);
+    }
+
+    @Test
+    void writeDelimitedName_ShouldBeReadableAsAStream() throws IOException {
+        // Arrange
+        NameResponseDTO first = name("a", "John", "Doe", CREATED_AT);
+        NameResponseDTO second = name("b", "Jane", "Smith", CREATED_AT.minusDays(1));
+
+        // Act
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        NameProtobuf.writeDelimitedName(out, first);
+        NameProtobuf.writeDelimitedName(out, second);
+        out.flush();
+        CodedInputStream in = CodedInputStream.newInstance(bytes.toByteArray());
+
+        // Assert
+        assertEquals(first, NameProtobuf.readDelimitedName(in));
+        assertEquals(second, NameProtobuf.readDelimitedName(in));
+        assertNull(NameProtobuf.readDelimitedName(in));
+    }
+
+    private static NameResponseDTO name(String uuid, String firstName, String lastName,
+            LocalDateTime createdAt) {
+        return new NameResponseDTO(uuid, firstName, lastName, createdAt, createdAt);
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.namecollection.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.example.namecollection.dto.NameCreatedBucketDTO;
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.search.NameKeys;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the single-statement update and delete against Postgres, since H2 doesn't support their
+ * RETURNING clauses, nor the COPY behind imports and exports. Skipped when Docker is not available.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class NameRepositoryReturningTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private NameRepository nameRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Name saved;
+
+    @BeforeEach
+    void setUp() {
+        Name name = new Name();
+        name.setFirstName("John");
+        name.setLastName("Doe");
+        saved = nameRepository.saveAndFlush(name);
+    }
+
+    @Test
+    void updateByUuidReturning_ShouldReturnUpdatedAndPreviousNames() {
+        // Act
+        Optional<NameUpdate> result =
+                nameRepository.updateByUuidReturning(saved.getUuid(), "Jane", "Smith");
+
+        // Assert
+        assertTrue(result.isPresent());
+        NameUpdate update = result.get();
+        assertEquals(saved.getId(), update.name().getId());
+        assertEquals(saved.getUuid(), update.name().getUuid());
+        assertEquals("Jane", update.name().getFirstName());
+        assertEquals("Smith", update.name().getLastName());
+        assertEquals("John", update.previousFirstName());
+        assertEquals("Doe", update.previousLastName());
+        assertTrue(update.name().getUpdatedAt().isAfter(saved.getUpdatedAt()));
+    }
+
+    @Test
+    void updateByUuidReturning_WhenMissing_ShouldReturnEmpty() {
+        // Act & Assert
+        assertFalse(nameRepository.updateByUuidReturning("missing", "Jane", "Smith").isPresent());
+    }
+
+    @Test
+    void deleteByUuidReturning_ShouldReturnDeletedNameOnce() {
+        // Act
+        Optional<Name> first = nameRepository.deleteByUuidReturning(saved.getUuid());
+        Optional<Name> second = nameRepository.deleteByUuidReturning(saved.getUuid());
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertEquals("John", first.get().getFirstName());
+        assertFalse(second.isPresent());
+        assertEquals(0, nameRepository.count());
+    }
+
+    @Test
+    void findNamesVersion_ShouldChangeWithEveryWritingStatement() {
+        // Arrange
+        long before = nameRepository.findNamesVersion();
+
+        // Act
+        nameRepository.updateByUuidReturning(saved.getUuid(), "Jane", "Smith");
+        long afterUpdate = nameRepository.findNamesVersion();
+        nameRepository.deleteByUuidReturning(saved.getUuid());
+        long afterDelete = nameRepository.findNamesVersion();
+
+        // Assert
+        assertTrue(afterUpdate > before);
+        assertTrue(afterDelete > afterUpdate);
+    }
+
+    @Test
+    void upsertCopiedRows_ShouldInsertNewAndUpdateChangedNamesByUuid() {
+        // Arrange
+        String newUuid = "123e4567-e89b-12d3-a456-426614174000";
+        String rows = row(0, saved.getUuid(), "Jane", "Doe") + row(1, newUuid, "Ann", "Lee")
+                + row(2, newUuid, "Anna", "Lee");
+
+        // Act
+        List<NameUpdate> upserted =
+                nameRepository.upsertCopiedRows(new StringReader(rows), LocalDateTime.now());
+
+        // Assert
+        Map<String, NameUpdate> byUuid = upserted.stream()
+                .collect(Collectors.toMap(update -> update.name().getUuid(), Function.identity()));
+        assertEquals(2, byUuid.size());
+        assertEquals("Jane", byUuid.get(saved.getUuid()).name().getFirstName());
+        assertEquals("John", byUuid.get(saved.getUuid()).previousFirstName());
+        // The last row for a uuid wins
+        assertEquals("Anna", byUuid.get(newUuid).name().getFirstName());
+        assertNull(byUuid.get(newUuid).previousFirstName());
+        assertEquals(2, nameRepository.count());
+    }
+
+    @Test
+    void upsertCopiedRows_ForNewNames_ShouldAllocateDenseIdsDisjointFromHibernates() {
+        // Arrange
+        StringBuilder rows = new StringBuilder(row(0, saved.getUuid(), "Jane", "Doe"));
+        for (int i = 1; i <= 120; i++) {
+            rows.append(row(i, UUID.randomUUID().toString(), "Ann", "Lee"));
+        }
+
+        // Act
+        List<Long> ids = nameRepository.upsertCopiedRows(new StringReader(rows.toString()),
+                LocalDateTime.now()).stream().map(update -> update.name().getId()).sorted()
+                .toList();
+        Name name = new Name();
+        name.setFirstName("Mia");
+        name.setLastName("Dean");
+        long hibernateId = nameRepository.saveAndFlush(name).getId();
+
+        // Assert
+        assertEquals(121, ids.size());
+        List<Long> imported = ids.stream().filter(id -> !id.equals(saved.getId())).toList();
+        // Three consecutive blocks of 50, the first 120 ids of which are used
+        assertEquals(120, imported.size());
+        assertEquals(119, imported.getLast() - imported.getFirst());
+        assertFalse(ids.contains(hibernateId));
+    }
+
+    private static String row(long record, String uuid, String firstName, String lastName) {
+        return String.join(",", String.valueOf(record), uuid, firstName, lastName,
+                NameKeys.fold(firstName), NameKeys.fold(lastName), NameKeys.phonetic(firstName),
+                NameKeys.phonetic(lastName)) + "\n";
+    }
+
+    @Test
+    void copyResponsesAsCsv_ShouldWriteMatchingNamesInOrderWithAHeader() {
+        // Arrange
+        Name other = new Name();
+        other.setFirstName("Anna");
+        other.setLastName("Doe");
+        nameRepository.saveAndFlush(other);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long copied = nameRepository.copyResponsesAsCsv("%doe%",
+                Sort.by(Sort.Direction.ASC, "first_name"), out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, copied);
+        assertEquals("uuid,firstName,lastName,createdAt,updatedAt", lines[0]);
+        assertTrue(lines[1].contains(",Anna,Doe,"));
+        assertTrue(lines[2].startsWith(saved.getUuid() + ",John,Doe,"));
+    }
+
+    @Test
+    void copyResponsesAsNdjson_ShouldWriteOneObjectPerLineAndQuoteThePattern() {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream none = new ByteArrayOutputStream();
+
+        // Act
+        long copied = nameRepository.copyResponsesAsNdjson(null, Sort.unsorted(), out);
+        long injected = nameRepository.copyResponsesAsNdjson("%' OR 'a' = 'a%", Sort.unsorted(),
+                none);
+
+        // Assert
+        assertEquals(1, copied);
+        assertTrue(out.toString(StandardCharsets.UTF_8)
+                .startsWith("{\"uuid\" : \"" + saved.getUuid() + "\""));
+        assertEquals(0, injected);
+    }
+
+    @Test
+    void aggregateCounts_ShouldCountPerFirstNameLastNameAndHour() {
+        // Arrange
+        Name other = new Name();
+        other.setFirstName("Anna");
+        other.setLastName("Doe");
+        nameRepository.saveAndFlush(other);
+
+        // Act
+        NameAggregates aggregates = nameRepository.aggregateCounts();
+
+        // Assert
+        assertEquals(Map.of("John", 1L, "Anna", 1L), aggregates.firstNames());
+        assertEquals(Map.of("Doe", 2L), aggregates.lastNames());
+        assertEquals(2L, aggregates.createdPerHour()
+                .get(saved.getCreatedAt().truncatedTo(ChronoUnit.HOURS)));
+    }
+
+    @Test
+    void aggregateCounts_ForANameWithoutCreationTime_ShouldCountItByNameOnly() {
+        // Arrange
+        jdbcTemplate.update("UPDATE names SET created_at = NULL WHERE id = ?", saved.getId());
+
+        // Act
+        NameAggregates aggregates = nameRepository.aggregateCounts();
+
+        // Assert
+        assertEquals(Map.of("John", 1L), aggregates.firstNames());
+        assertTrue(aggregates.createdPerHour().isEmpty());
+    }
+
+    @Test
+    void countCreatedBetween_ShouldCountOnlyTheRangeInDayBuckets() {
+        // Arrange
+        LocalDateTime today = saved.getCreatedAt().truncatedTo(ChronoUnit.DAYS);
+
+        // Act
+        List<NameCreatedBucketDTO> inRange = nameRepository.countCreatedBetween(
+                today.minusDays(1), today.plusDays(1), ChronoUnit.DAYS);
+        List<NameCreatedBucketDTO> before = nameRepository.countCreatedBetween(
+                today.minusDays(2), today, ChronoUnit.DAYS);
+
+        // Assert
+        assertEquals(List.of(new NameCreatedBucketDTO(today, 1)), inRange);
+        assertTrue(before.isEmpty());
+    }
+
+    @Test
+    void findSearchCandidates_PastTheLimit_ShouldKeepTheExactMatchAndCountAll() {
+        // Arrange
+        for (String lastName : List.of("Doey", "Dow", "Dough")) {
+            Name name = new Name();
+            name.setFirstName("Anna");
+            name.setLastName(lastName);
+            nameRepository.saveAndFlush(name);
+        }
+
+        // Act
+        NameCandidates candidates = nameRepository.findSearchCandidates(
+                NameKeys.phoneticCodes("doe"), "doe", false, 1);
+
+        // Assert
+        assertEquals(4, candidates.total());
+        assertEquals(List.of("Doe"),
+                candidates.names().stream().map(NameResponseDTO::getLastName).toList());
+    }
+
+    @Test
+    void updateSearchKeys_ForANameRenamedSinceItWasRead_ShouldLeaveItAlone() {
+        // Arrange
+        // Still John Doe, as read before the rename
+        Name stale = nameRepository.findById(saved.getId()).orElseThrow();
+        nameRepository.updateByUuidReturning(saved.getUuid(), "Jane", "Roe");
+
+        // Act
+        int updated = nameRepository.updateSearchKeys(List.of(stale));
+
+        // Assert
+        assertEquals(0, updated);
+        assertEquals(List.of("Roe"), nameRepository.findSearchCandidates(
+                NameKeys.phoneticCodes("roe"), "roe", false, 10).names().stream()
+                .map(NameResponseDTO::getLastName).toList());
+    }
+}
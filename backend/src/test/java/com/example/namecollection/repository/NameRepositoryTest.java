@@ -1,5 +1,6 @@
 package com.example.namecollection.repository;
 
+import com.example.namecollection.dto.NameResponseDTO;
 import com.example.namecollection.model.Name;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -49,65 +51,103 @@ public class NameRepositoryTest {
         testName2.setLastName("Smith");
         testName2.setCreatedAt(LocalDateTime.now());
 
-        // Save test data
+        // Save test data, flushing so queries that go through plain JDBC can see it
         nameRepository.save(testName1);
-        nameRepository.save(testName2);
+        nameRepository.saveAndFlush(testName2);
     }
 
     @Test
-    void findByUuid_ShouldReturnName() {
-        // Act
-        Optional<Name> result = nameRepository.findByUuid(uuid1);
+    void searchResponsesByTerm_ShouldReturnMatchingNames() {
+        // Arrange
+        Sort columnSort = Sort.by("first_name").ascending();
+
+        // Act - Search by first name
+        List<NameResponseDTO> result1 =
+                nameRepository.searchResponsesByTerm("%jo%", columnSort, 0, 10);
+
+        // Act - Search by last name
+        List<NameResponseDTO> result2 =
+                nameRepository.searchResponsesByTerm("%sm%", columnSort, 0, 10);
+
+        // Act - Search matching both
+        List<NameResponseDTO> result3 =
+                nameRepository.searchResponsesByTerm("%j%", columnSort, 0, 10);
 
         // Assert
-        assertTrue(result.isPresent());
-        assertEquals("John", result.get().getFirstName());
-        assertEquals("Doe", result.get().getLastName());
+        assertEquals(1, result1.size());
+        assertEquals("John", result1.get(0).getFirstName());
+        assertEquals(uuid1, result1.get(0).getUuid());
+
+        assertEquals(1, result2.size());
+        assertEquals("Jane", result2.get(0).getFirstName());
+
+        assertEquals(2, nameRepository.countByTerm("%j%"));
+        assertEquals("Jane", result3.get(0).getFirstName());
+        assertEquals("John", result3.get(1).getFirstName());
     }
 
     @Test
-    void findByUuid_WhenUuidDoesNotExist_ShouldReturnEmpty() {
+    void searchResponsesByTerm_ShouldSeeNamesSavedInTheSameTransaction() {
         // Arrange
-        String nonExistentUuid = UUID.randomUUID().toString();
+        Name unflushed = new Name();
+        unflushed.setFirstName("Joanna");
+        unflushed.setLastName("Black");
+        nameRepository.save(unflushed);
 
         // Act
-        Optional<Name> result = nameRepository.findByUuid(nonExistentUuid);
+        List<NameResponseDTO> result =
+                nameRepository.searchResponsesByTerm("%black%", Sort.unsorted(), 0, 10);
 
         // Assert
-        assertFalse(result.isPresent());
+        assertEquals(1, result.size());
+        assertEquals("Joanna", result.get(0).getFirstName());
     }
 
     @Test
-    void findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase_ShouldReturnMatchingNames() {
-        // Arrange
-        Pageable pageable = PageRequest.of(0, 10, Sort.by("firstName").ascending());
+    void searchResponsesByTerm_ShouldMatchEscapedWildcardsLiterally() {
+        // Act
+        List<NameResponseDTO> result =
+                nameRepository.searchResponsesByTerm("%\\_%", Sort.unsorted(), 0, 10);
 
-        // Act - Search by first name
-        Page<Name> result1 =
-                nameRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-                        "Jo", "Jo", pageable);
+        // Assert
+        assertEquals(0, result.size());
+        assertEquals(0, nameRepository.countByTerm("%\\_%"));
+    }
 
-        // Act - Search by last name
-        Page<Name> result2 =
-                nameRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-                        "Sm", "Sm", pageable);
+    @Test
+    void findResponsePage_ShouldProjectAndCount() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("firstName").ascending());
+
+        // Act
+        Page<NameResponseDTO> result = nameRepository.findResponsePage(pageable);
 
         // Assert
-        assertEquals(1, result1.getContent().size());
-        assertEquals("John", result1.getContent().get(0).getFirstName());
+        assertEquals(2, result.getTotalElements());
+        assertEquals("Jane", result.getContent().get(0).getFirstName());
+        assertEquals("Smith", result.getContent().get(0).getLastName());
+    }
 
-        assertEquals(1, result2.getContent().size());
-        assertEquals("Jane", result2.getContent().get(0).getFirstName());
+    @Test
+    void findResponsesByIds_ShouldKeepRequestedOrder() {
+        // Act
+        List<NameResponseDTO> result = nameRepository.findResponsesByIds(
+                new long[] {testName2.getId(), -1L, testName1.getId()});
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(uuid2, result.get(0).getUuid());
+        assertEquals(uuid1, result.get(1).getUuid());
     }
 
     @Test
-    void deleteByUuid_ShouldRemoveName() {
+    void findResponseByUuid_ShouldReturnProjection() {
         // Act
-        nameRepository.deleteByUuid(uuid1);
+        Optional<NameResponseDTO> result = nameRepository.findResponseByUuid(uuid1);
 
         // Assert
-        assertEquals(1, nameRepository.count());
-        assertTrue(nameRepository.findByUuid(uuid1).isEmpty());
-        assertTrue(nameRepository.findByUuid(uuid2).isPresent());
+        assertTrue(result.isPresent());
+        assertEquals("John", result.get().getFirstName());
+        assertEquals("Doe", result.get().getLastName());
     }
 }
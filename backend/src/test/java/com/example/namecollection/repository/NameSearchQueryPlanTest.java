@@ -0,0 +1,115 @@
+package com.example.namecollection.repository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies against a real Postgres planner that the search query is served by the trigram
+ * indexes from the Flyway migrations instead of a sequential scan. Skipped when Docker is not
+ * available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class NameSearchQueryPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:14-alpine");
+
+    private static String selectivePattern;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration").load().migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            // Enough rows that a sequential scan is clearly more expensive than the index
+            statement.execute("""
+                    INSERT INTO names (uuid, first_name, last_name)
+                    SELECT gen_random_uuid()::text, 'First' || md5(g::text), 'Last' || md5((g * 7)::text)
+                    FROM generate_series(1, 100000) g""");
+            statement.execute("ANALYZE names");
+
+            try (ResultSet rs = statement.executeQuery(
+                    "SELECT first_name FROM names ORDER BY id DESC LIMIT 1")) {
+                rs.next();
+                // Eight hex characters of an md5 hash identify roughly a single row
+                selectivePattern =
+                        "%" + rs.getString(1).substring(10, 18).toLowerCase(Locale.ROOT) + "%";
+            }
+        }
+    }
+
+    @Test
+    void searchQuery_ShouldUseTrigramIndexes() throws SQLException {
+        // Act
+        String plan = explain(NameRepository.SEARCH_BY_TERM_QUERY);
+
+        // Assert
+        assertTrue(plan.contains("idx_names_first_name_trgm"), plan);
+        assertTrue(plan.contains("idx_names_last_name_trgm"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void countQuery_ShouldUseTrigramIndexes() throws SQLException {
+        // Act
+        String plan = explain(NameRepository.COUNT_BY_TERM_QUERY);
+
+        // Assert
+        assertTrue(plan.contains("idx_names_first_name_trgm"), plan);
+        assertTrue(plan.contains("idx_names_last_name_trgm"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void searchQuery_ShouldFindTheMatchingRow() throws SQLException {
+        // Act
+        try (Connection connection = connect();
+                PreparedStatement statement = connection
+                        .prepareStatement(NameRepository.COUNT_BY_TERM_QUERY.replace(":pattern", "?"))) {
+            statement.setString(1, selectivePattern);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+
+                // Assert
+                assertEquals(1, rs.getLong(1));
+            }
+        }
+    }
+
+    private static String explain(String query) throws SQLException {
+        String sql = "EXPLAIN " + query.replace(":pattern", "'" + selectivePattern + "'");
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connect();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(),
+                postgres.getPassword());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.namecollection.search;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NameKeysTest {
+
+    @Test
+    void fold_ShouldTrimLowerCaseAndStripAccents() {
+        // Act & Assert
+        assertEquals("zoe muller", NameKeys.fold("  Zoë Müller "));
+        assertEquals("jose", NameKeys.fold("JOSÉ"));
+    }
+
+    @Test
+    void phonetic_ShouldGiveNamesThatSoundAlikeTheSameCode() {
+        // Act & Assert
+        assertEquals(NameKeys.phonetic("Johnson"), NameKeys.phonetic("Jonson"));
+        assertEquals(NameKeys.phonetic("Smith"), NameKeys.phonetic("Smyth"));
+        assertEquals("", NameKeys.phonetic("--"));
+    }
+
+    @Test
+    void phoneticCodes_ShouldCoverTheWholeTermAndEachWord() {
+        // Act
+        Set<String> codes = NameKeys.phoneticCodes("Jon Smyth");
+
+        // Assert
+        assertTrue(codes.contains(NameKeys.phonetic("Jon")));
+        assertTrue(codes.contains(NameKeys.phonetic("Smith")));
+    }
+
+    @Test
+    void editDistance_ShouldStopPastTheLimit() {
+        // Act & Assert
+        assertEquals(0, NameKeys.editDistance("jonson", "jonson", 2));
+        assertEquals(1, NameKeys.editDistance("jonson", "johnson", 2));
+        assertEquals(2, NameKeys.editDistance("jonson", "benson", 2));
+        assertEquals(3, NameKeys.editDistance("jonson", "carter", 2));
+        assertEquals(3, NameKeys.editDistance("jo", "jonathan", 2));
+    }
+}
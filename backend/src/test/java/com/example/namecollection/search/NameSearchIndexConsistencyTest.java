@@ -0,0 +1,151 @@
+package com.example.namecollection.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameRepository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the in-memory index returns the same ids, in the same order and with the same
+ * totals, as the database search it replaces.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(NameSearchIndex.class)
+@TestPropertySource(properties = "names.search.in-memory.enabled=true")
+public class NameSearchIndexConsistencyTest {
+
+    private static final String[] FIRST_NAMES =
+            {"John", "Jane", "Johnny", "Anna", "Hannah", "Jonas", "Ann-Marie", "Sean"};
+    private static final String[] LAST_NAMES =
+            {"Johnson", "Smith", "Anderson", "Jones", "Hanson", "Swanson", "Dean", "Ng"};
+    private static final String[] SEARCH_TERMS =
+            {"", "j", "an", "ann", "son", "JOHN", "n-m", "ean", "xyz", "ng"};
+    private static final List<String> SORT_FIELDS =
+            List.of("id", "firstName", "lastName", "createdAt");
+
+    @Autowired
+    private NameRepository nameRepository;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    void setUp() {
+        nameRepository.deleteAll();
+        for (int i = 0; i < 300; i++) {
+            nameRepository.save(randomName());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        nameSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_ShouldMatchDatabaseResults() {
+        assertConsistent();
+    }
+
+    @Test
+    void search_AfterIncrementalChanges_ShouldMatchDatabaseResults() {
+        // Arrange
+        List<Name> names = new ArrayList<>(nameRepository.findAll());
+        for (int i = 0; i < 40; i++) {
+            Name name = names.get(random.nextInt(names.size()));
+            switch (i % 3) {
+                case 0 -> {
+                    Name created = nameRepository.save(randomName());
+                    nameSearchIndex.onNameChanged(NameChangedEvent.created(created));
+                    names.add(created);
+                }
+                case 1 -> {
+                    String previousFirstName = name.getFirstName();
+                    String previousLastName = name.getLastName();
+                    name.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                    name.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                    Name updated = nameRepository.save(name);
+                    nameSearchIndex.onNameChanged(
+                            NameChangedEvent.updated(updated, previousFirstName, previousLastName));
+                }
+                default -> {
+                    nameRepository.delete(name);
+                    nameSearchIndex.onNameChanged(NameChangedEvent.deleted(name));
+                    names.remove(name);
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act & Assert
+        assertConsistent();
+    }
+
+    private void assertConsistent() {
+        for (String term : SEARCH_TERMS) {
+            for (String sortBy : SORT_FIELDS) {
+                for (Sort.Direction direction : Sort.Direction.values()) {
+                    for (int page = 0; page < 3; page++) {
+                        assertPageConsistent(term, sortBy, direction, page, 25);
+                    }
+                }
+            }
+        }
+    }
+
+    private void assertPageConsistent(String term, String sortBy, Sort.Direction direction,
+            int page, int size) {
+        String context = term + " " + sortBy + " " + direction + " page " + page;
+
+        NameSearchIndex.SearchResult indexed = nameSearchIndex.search(term, sortBy,
+                direction.isAscending(), (long) page * size, size);
+
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+        Page<Name> expected;
+        if (term.isEmpty()) {
+            expected = nameRepository.findAll(PageRequest.of(page, size, sort));
+        } else {
+            String pattern = "%" + term.toLowerCase(Locale.ROOT) + "%";
+            Specification<Name> matches = (root, query, cb) -> cb.or(
+                    cb.like(cb.lower(root.<String>get("firstName")), pattern),
+                    cb.like(cb.lower(root.<String>get("lastName")), pattern));
+            expected = nameRepository.findAll(matches, PageRequest.of(page, size, sort));
+        }
+
+        assertEquals(expected.getTotalElements(), indexed.total(), context);
+        assertArrayEquals(expected.getContent().stream().mapToLong(Name::getId).toArray(),
+                indexed.ids(), context);
+    }
+
+    private Name randomName() {
+        Name name = new Name();
+        name.setFirstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        name.setLastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        return name;
+    }
+}
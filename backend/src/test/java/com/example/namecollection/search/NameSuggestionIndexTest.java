@@ -0,0 +1,72 @@
+package com.example.namecollection.search;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.example.namecollection.dto.NameSuggestionDTO;
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NameSuggestionIndexTest {
+
+    @Mock
+    private NameRepository nameRepository;
+
+    private NameSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameSuggestionIndex(nameRepository, true);
+        when(nameRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(name(1L, "John", "Doe"), name(2L, "John", "Smith"),
+                        name(3L, "Jane", "Doe")));
+        index.load();
+    }
+
+    @Test
+    void suggest_AfterLoad_ShouldWeightNamesByUse() {
+        // Act & Assert
+        assertTrue(index.isReady());
+        assertEquals(List.of(new NameSuggestionDTO("John", 2), new NameSuggestionDTO("Jane", 1)),
+                index.suggest("j", 10));
+        assertEquals(List.of(new NameSuggestionDTO("Doe", 2)), index.suggest("d", 10));
+    }
+
+    @Test
+    void suggest_ShouldReflectWritesOnceRefreshed() {
+        // Arrange
+        index.onNameChanged(NameChangedEvent.deleted(name(1L, "John", "Doe")));
+        index.onNameChanged(NameChangedEvent.updated(name(3L, "Joan", "Doe"), "Jane", "Doe"));
+
+        // Act
+        List<NameSuggestionDTO> beforeRefresh = index.suggest("j", 10);
+        index.refresh();
+        List<NameSuggestionDTO> afterRefresh = index.suggest("j", 10);
+
+        // Assert
+        assertEquals(2, beforeRefresh.get(0).getCount());
+        assertEquals(List.of(new NameSuggestionDTO("Joan", 1), new NameSuggestionDTO("John", 1)),
+                afterRefresh);
+        assertEquals(2, index.rebuildCount());
+    }
+
+    private static Name name(long id, String firstName, String lastName) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Name(id, "uuid-" + id, firstName, lastName, now, now);
+    }
+}
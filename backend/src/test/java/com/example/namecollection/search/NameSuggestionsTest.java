@@ -0,0 +1,54 @@
+package com.example.namecollection.search;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.namecollection.dto.NameSuggestionDTO;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NameSuggestionsTest {
+
+    private final NameSuggestions suggestions = NameSuggestions.build(Map.of("John", 3,
+            "Johnson", 5, "Jo", 1, "Joan", 3, "José", 2, "Jane", 9, "Kim", 4, "Gone", 0));
+
+    @Test
+    void top_ShouldReturnTheMostUsedValuesWithThePrefix() {
+        // Act
+        List<NameSuggestionDTO> top = suggestions.top("jo", 3);
+
+        // Assert
+        // Equal counts fall back to alphabetical order
+        assertEquals(List.of(new NameSuggestionDTO("Johnson", 5), new NameSuggestionDTO("Joan", 3),
+                new NameSuggestionDTO("John", 3)), top);
+    }
+
+    @Test
+    void top_ShouldIgnoreCaseAndAccents() {
+        // Act & Assert
+        assertEquals(List.of(new NameSuggestionDTO("José", 2)), suggestions.top("JOSE", 10));
+    }
+
+    @Test
+    void top_ShouldReturnEveryMatchWhenThereAreFewerThanTheLimit() {
+        // Act
+        List<NameSuggestionDTO> top = suggestions.top("j", 10);
+
+        // Assert
+        assertEquals(6, top.size());
+        assertEquals("Jane", top.get(0).getValue());
+        assertEquals("Jo", top.get(5).getValue());
+    }
+
+    @Test
+    void top_ShouldReturnNothingForAnUnknownPrefixOrUnusedValue() {
+        // Act & Assert
+        assertTrue(suggestions.top("x", 10).isEmpty());
+        assertTrue(suggestions.top("gon", 10).isEmpty());
+        assertTrue(suggestions.top("johnsons", 10).isEmpty());
+        assertEquals(7, suggestions.size());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.namecollection.security;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import com.example.namecollection.config.CustomJwtAuthenticationConverter;
+
+public class RoutePermissionsTest {
+
+    private final RoutePermissions routePermissions = new RoutePermissions();
+
+    @Test
+    void requiredPermissions_ShouldMapNameRoutesByMethod() {
+        assertEquals(Set.of(Permission.READ_NAMES), required("GET", "/api/names/search"));
+        assertEquals(Set.of(Permission.CREATE_NAMES), required("POST", "/api/names/batch"));
+        assertEquals(Set.of(Permission.UPDATE_NAMES), required("PUT", "/api/names/abc"));
+        assertEquals(Set.of(Permission.DELETE_NAMES), required("DELETE", "/api/names/abc"));
+        assertTrue(required("PATCH", "/api/names/abc").isEmpty());
+        assertTrue(required("GET", "/api/other").isEmpty());
+    }
+
+    @Test
+    void requiredPermissions_ForImport_ShouldAlsoRequireUpdate() {
+        assertEquals(Set.of(Permission.CREATE_NAMES, Permission.UPDATE_NAMES),
+                required("POST", "/api/names/import"));
+        // Other methods fall through to the names route
+        assertEquals(Set.of(Permission.DELETE_NAMES), required("DELETE", "/api/names/import"));
+    }
+
+    @Test
+    void check_ForImport_ShouldDenyACreatorWithoutUpdate() {
+        // Act & Assert
+        assertFalse(isGranted(token("create:names"), "POST", "/api/names/import"));
+        assertTrue(isGranted(token("create:names", "update:names"), "POST", "/api/names/import"));
+    }
+
+    @Test
+    void check_ShouldGrantOnlyWithTheRoutesPermission() {
+        // Arrange
+        Authentication viewer = token("read:names");
+
+        // Act & Assert
+        assertTrue(isGranted(viewer, "GET", "/api/names"));
+        assertFalse(isGranted(viewer, "DELETE", "/api/names/abc"));
+    }
+
+    @Test
+    void check_ShouldOnlyRequireAuthenticationForOtherRoutes() {
+        // Arrange
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymous",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        // Act & Assert
+        assertTrue(isGranted(token(), "GET", "/api/other"));
+        assertFalse(isGranted(anonymous, "GET", "/api/other"));
+        assertFalse(isGranted(anonymous, "GET", "/api/names"));
+    }
+
+    private Set<Permission> required(String method, String uri) {
+        return routePermissions.requiredPermissions(new MockHttpServletRequest(method, uri));
+    }
+
+    private boolean isGranted(Authentication authentication, String method, String uri) {
+        RequestAuthorizationContext context =
+                new RequestAuthorizationContext(new MockHttpServletRequest(method, uri));
+        return routePermissions.authorize(() -> authentication, context).isGranted();
+    }
+
+    private static Authentication token(String... permissions) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user-1")
+                .claim("permissions", List.of(permissions)).build();
+        return new CustomJwtAuthenticationConverter().convert(jwt);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.namecollection.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+@ExtendWith(MockitoExtension.class)
+public class LastLoginUpdaterTest {
+
+    private static final LocalDateTime EARLIER = LocalDateTime.of(2025, 1, 1, 9, 0);
+    private static final LocalDateTime LATER = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private LastLoginUpdater lastLoginUpdater;
+
+    @BeforeEach
+    void setUp() {
+        lastLoginUpdater = new LastLoginUpdater(jdbcTemplate, taskScheduler, 3);
+    }
+
+    @Test
+    void recordLogin_ShouldKeepLatestTimestampWithoutWriting() {
+        // Act
+        lastLoginUpdater.recordLogin("user-1", LATER);
+        lastLoginUpdater.recordLogin("user-1", EARLIER);
+
+        // Assert
+        assertEquals(1, lastLoginUpdater.pendingCount());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWritePendingLoginsInOneBatch() {
+        // Arrange
+        lastLoginUpdater.recordLogin("user-1", EARLIER);
+        lastLoginUpdater.recordLogin("user-1", LATER);
+        lastLoginUpdater.recordLogin("user-2", EARLIER);
+
+        // Act
+        int written = lastLoginUpdater.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> batchArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1))
+                .batchUpdate(eq(LastLoginUpdater.UPDATE_LAST_LOGIN_SQL), batchArgs.capture());
+        assertEquals(2, written);
+        assertEquals(2, batchArgs.getValue().size());
+        Object[] user1 = batchArgs.getValue().stream()
+                .filter(args -> "user-1".equals(args[1])).findFirst().orElseThrow();
+        assertEquals(Timestamp.valueOf(LATER), user1[0]);
+        assertEquals(0, lastLoginUpdater.pendingCount());
+    }
+
+    @Test
+    void flush_WhenNothingPending_ShouldNotWrite() {
+        // Act
+        lastLoginUpdater.flush();
+
+        // Assert
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyList());
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldKeepLoginsPending() {
+        // Arrange
+        lastLoginUpdater.recordLogin("user-1", LATER);
+        when(jdbcTemplate.batchUpdate(any(String.class), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        int written = lastLoginUpdater.flush();
+
+        // Assert
+        assertEquals(0, written);
+        assertEquals(1, lastLoginUpdater.pendingCount());
+    }
+
+    @Test
+    void recordLogin_WhenFlushSizeReached_ShouldScheduleFlushOnce() {
+        // Act
+        lastLoginUpdater.recordLogin("user-1", LATER);
+        lastLoginUpdater.recordLogin("user-2", LATER);
+        lastLoginUpdater.recordLogin("user-3", LATER);
+        lastLoginUpdater.recordLogin("user-4", LATER);
+
+        // Assert
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
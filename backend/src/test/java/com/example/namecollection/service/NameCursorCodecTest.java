@@ -0,0 +1,70 @@
+package com.example.namecollection.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NameCursorCodecTest {
+
+    private static final Sort.Order CREATED_AT = Sort.Order.asc("createdAt");
+
+    @Test
+    void decode_ShouldRestoreTheEncodedKeys() {
+        // Arrange
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+        String cursor = NameCursorCodec.encode(CREATED_AT, position(createdAt, 42L));
+
+        // Act
+        KeysetScrollPosition decoded = NameCursorCodec.decode(cursor, CREATED_AT);
+
+        // Assert
+        assertEquals(createdAt, decoded.getKeys().get("createdAt"));
+        assertEquals(42L, decoded.getKeys().get("id"));
+    }
+
+    @Test
+    void decode_WithNullSortKey_ShouldRestoreNull() {
+        // Arrange
+        String cursor = NameCursorCodec.encode(CREATED_AT, position(null, 7L));
+
+        // Act
+        KeysetScrollPosition decoded = NameCursorCodec.decode(cursor, CREATED_AT);
+
+        // Assert
+        assertTrue(decoded.getKeys().containsKey("createdAt"));
+        assertNull(decoded.getKeys().get("createdAt"));
+        assertEquals(7L, decoded.getKeys().get("id"));
+    }
+
+    @Test
+    void decode_WithStringKeyContainingTheSeparator_ShouldKeepItWhole() {
+        // Arrange
+        Sort.Order lastName = Sort.Order.asc("lastName");
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("lastName", "Smith|Jones");
+        keys.put("id", 3L);
+        String cursor = NameCursorCodec.encode(lastName, ScrollPosition.forward(keys));
+
+        // Act
+        KeysetScrollPosition decoded = NameCursorCodec.decode(cursor, lastName);
+
+        // Assert
+        assertEquals("Smith|Jones", decoded.getKeys().get("lastName"));
+    }
+
+    private static KeysetScrollPosition position(LocalDateTime createdAt, long id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", createdAt);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
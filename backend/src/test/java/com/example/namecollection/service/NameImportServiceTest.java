@@ -0,0 +1,176 @@
+package com.example.namecollection.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.namecollection.dto.NameImportChunkDTO;
+import com.example.namecollection.dto.NameImportReportDTO;
+import com.example.namecollection.event.NamesImportedEvent;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameRepository;
+import com.example.namecollection.repository.NameUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+@ExtendWith(MockitoExtension.class)
+public class NameImportServiceTest {
+
+    private static final String EXISTING_UUID = "123e4567-e89b-12d3-a456-426614174000";
+
+    @Mock
+    private NameRepository nameRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ValidatorFactory validatorFactory;
+    private NameImportService nameImportService;
+    // The CSV rows each chunk handed to COPY
+    private final List<String> copiedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        nameImportService = new NameImportService(nameRepository, transactionManager,
+                eventPublisher, validatorFactory.getValidator(), new ObjectMapper(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importNames_ShouldCommitFullChunksAndReportRejectedRecords() {
+        // Arrange
+        when(nameRepository.upsertCopiedRows(any(), any())).thenAnswer(invocation -> {
+            copiedChunks.add(read(invocation.getArgument(0)));
+            return copiedChunks.size() == 1
+                    ? List.of(new NameUpdate(name(EXISTING_UUID, "Jane", "Doe"), "John", "Doe"))
+                    : List.of(new NameUpdate(name("generated", "Ann", "Lee"), null, null));
+        });
+        String csv = "firstName,lastName,uuid\n"
+                + "Jane,Doe," + EXISTING_UUID.toUpperCase() + "\n"
+                + "J,Doe,\n"
+                + "Ann,Lee,\n";
+
+        // Act
+        NameImportReportDTO report =
+                nameImportService.importNames(body(csv), BulkFormat.CSV);
+
+        // Assert
+        assertNull(report.getError());
+        assertEquals(3, report.getReceived());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, report.getRejected());
+        assertEquals(2, report.getChunks().size());
+
+        NameImportChunkDTO first = report.getChunks().get(0);
+        assertEquals(0, first.getFirstRecord());
+        assertEquals(1, first.getLastRecord());
+        assertEquals(1, first.getRejected());
+        assertEquals(1, first.getErrors().get(0).getIndex());
+        assertTrue(first.getErrors().get(0).getErrors().containsKey("firstName"));
+
+        // Uuids are normalised, and records without one are given a new one
+        assertEquals("0,\"" + EXISTING_UUID
+                + "\",\"Jane\",\"Doe\",\"jane\",\"doe\",\"JN\",\"T\"\n", copiedChunks.get(0));
+        assertTrue(copiedChunks.get(1)
+                .matches("2,\"[0-9a-f-]{36}\",\"Ann\",\"Lee\",\"ann\",\"lee\",\"AN\",\"L\"\n"));
+
+        ArgumentCaptor<NamesImportedEvent> event =
+                ArgumentCaptor.forClass(NamesImportedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(event.capture());
+        assertEquals("John", event.getAllValues().get(0).changes().get(0).previousFirstName());
+    }
+
+    @Test
+    void importNames_WhenBodyIsMalformed_ShouldKeepRecordsReadBeforeTheError() {
+        // Arrange
+        when(nameRepository.upsertCopiedRows(any(), any())).thenAnswer(invocation -> {
+            copiedChunks.add(read(invocation.getArgument(0)));
+            return List.of(new NameUpdate(name("generated", "John", "Doe"), null, null));
+        });
+        String ndjson = "{\"firstName\":\"John\",\"lastName\":\"Doe\"}\n{\"firstName\":";
+
+        // Act
+        NameImportReportDTO report =
+                nameImportService.importNames(body(ndjson), BulkFormat.NDJSON);
+
+        // Assert
+        assertNotNull(report.getError());
+        assertTrue(report.getError().startsWith("Record 1 could not be read"));
+        assertEquals(1, report.getInserted());
+        assertEquals(1, copiedChunks.size());
+    }
+
+    @Test
+    void importNames_WhenEveryRecordIsInvalid_ShouldNotTouchTheDatabase() {
+        // Arrange
+        String ndjson = "{\"firstName\":\"John\",\"lastName\":\"D0e\"}\n"
+                + "{\"firstName\":\"John\",\"lastName\":\"Doe\",\"uuid\":\"not-a-uuid\"}\n";
+
+        // Act
+        NameImportReportDTO report =
+                nameImportService.importNames(body(ndjson), BulkFormat.NDJSON);
+
+        // Assert
+        assertNull(report.getError());
+        assertEquals(2, report.getRejected());
+        assertEquals(0, report.getInserted());
+        verify(nameRepository, never()).upsertCopiedRows(any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Reader reader) {
+        StringWriter content = new StringWriter();
+        try {
+            reader.transferTo(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return content.toString();
+    }
+
+    private static Name name(String uuid, String firstName, String lastName) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Name(1L, uuid, firstName, lastName, now, now);
+    }
+}
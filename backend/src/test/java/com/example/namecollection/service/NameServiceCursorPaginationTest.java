@@ -0,0 +1,164 @@
+package com.example.namecollection.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.namecollection.dto.CursorPageDTO;
+import com.example.namecollection.dto.NameResponseDTO;
+import com.example.namecollection.dto.NameSearchCriteriaDTO;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameRepository;
+import com.example.namecollection.search.NameSearchIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({NameService.class, NameSearchIndex.class, NameCountEstimator.class})
+public class NameServiceCursorPaginationTest {
+
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Anna", "Sean", "Mia"};
+    private static final String[] LAST_NAMES = {"Smith", "Jones", "Dean"};
+
+    @Autowired
+    private NameService nameService;
+
+    @Autowired
+    private NameRepository nameRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        nameRepository.deleteAll();
+        // Plenty of duplicate sort keys so the id tiebreaker matters
+        List<Name> names = new ArrayList<>();
+        for (int i = 0; i < 53; i++) {
+            Name name = new Name();
+            name.setFirstName(FIRST_NAMES[i % FIRST_NAMES.length]);
+            name.setLastName(LAST_NAMES[i % LAST_NAMES.length]);
+            names.add(name);
+        }
+        nameRepository.saveAllAndFlush(names);
+        // Read the rows back as the database stores them, not as they were written
+        entityManager.clear();
+    }
+
+    @Test
+    void getNamesAfter_ShouldWalkTheSameRowsAsOffsetPagination() {
+        for (String sortBy : List.of("id", "firstName", "lastName", "createdAt")) {
+            for (String direction : List.of("ASC", "DESC")) {
+                // Arrange
+                NameSearchCriteriaDTO offsetCriteria = criteria(sortBy, direction, "n");
+                offsetCriteria.setSize(100);
+                List<String> expected = uuids(nameService.getNames(offsetCriteria).getContent());
+
+                // Act
+                List<String> actual = new ArrayList<>();
+                NameSearchCriteriaDTO cursorCriteria = criteria(sortBy, direction, "n");
+                CursorPageDTO<NameResponseDTO> page;
+                do {
+                    page = nameService.getNamesAfter(cursorCriteria);
+                    actual.addAll(uuids(page.getContent()));
+                    cursorCriteria.setAfter(page.getNextCursor());
+                } while (page.isHasNext());
+
+                // Assert
+                assertEquals(expected, actual, sortBy + " " + direction);
+                assertNull(page.getNextCursor());
+            }
+        }
+    }
+
+    @Test
+    void getNamesAfter_ByCreatedAtAcrossNamesWithoutCreationTime_ShouldWalkEveryNameOnce() {
+        // Arrange
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE names SET created_at = NULL WHERE mod(id, 3) = 0")
+                .executeUpdate();
+        List<Name> names = nameRepository.findAll();
+        // As Postgres orders them: NULLs last ascending, first descending
+        Comparator<Name> ascending = Comparator.comparing(Name::getCreatedAt,
+                Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+                .thenComparing(Name::getId);
+
+        for (String direction : List.of("ASC", "DESC")) {
+            List<String> expected = names.stream()
+                    .sorted("ASC".equals(direction) ? ascending : ascending.reversed())
+                    .map(Name::getUuid).toList();
+
+            // Act
+            List<String> actual = new ArrayList<>();
+            NameSearchCriteriaDTO criteria = criteria("createdAt", direction, null);
+            CursorPageDTO<NameResponseDTO> page;
+            do {
+                page = nameService.getNamesAfter(criteria);
+                actual.addAll(uuids(page.getContent()));
+                criteria.setAfter(page.getNextCursor());
+            } while (page.isHasNext());
+
+            // Assert
+            assertEquals(expected, actual, direction);
+        }
+    }
+
+    @Test
+    void getNamesAfter_WithCursorForAnotherSort_ShouldReject() {
+        // Arrange
+        CursorPageDTO<NameResponseDTO> firstPage =
+                nameService.getNamesAfter(criteria("firstName", "ASC", null));
+        NameSearchCriteriaDTO criteria = criteria("lastName", "ASC", null);
+        criteria.setAfter(firstPage.getNextCursor());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> nameService.getNamesAfter(criteria));
+    }
+
+    @Test
+    void getNamesAfter_WithMalformedCursor_ShouldReject() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = criteria("id", "ASC", null);
+        criteria.setAfter("not-a-cursor!");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> nameService.getNamesAfter(criteria));
+    }
+
+    @Test
+    void getNamesAfter_WhenNoRowsMatch_ShouldReturnEmptyLastPage() {
+        // Act
+        CursorPageDTO<NameResponseDTO> page =
+                nameService.getNamesAfter(criteria("id", "ASC", "xyz"));
+
+        // Assert
+        assertEquals(0, page.getContent().size());
+        assertFalse(page.isHasNext());
+    }
+
+    private NameSearchCriteriaDTO criteria(String sortBy, String direction, String searchTerm) {
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSortBy(sortBy);
+        criteria.setSortDirection(direction);
+        criteria.setSearchTerm(searchTerm);
+        criteria.setSize(7);
+        return criteria;
+    }
+
+    private List<String> uuids(List<NameResponseDTO> names) {
+        return names.stream().map(NameResponseDTO::getUuid).toList();
+    }
+}
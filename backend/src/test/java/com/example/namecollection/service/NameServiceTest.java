@@ -1,12 +1,14 @@
 package com.example.namecollection.service;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -15,27 +17,35 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
+import com.example.namecollection.cache.NamePageKey;
 import com.example.namecollection.dto.NameResponseDTO;
 import com.example.namecollection.dto.NameSearchCriteriaDTO;
 import com.example.namecollection.dto.PageDTO;
+import com.example.namecollection.event.NameChangedEvent;
 import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameCandidates;
 import com.example.namecollection.repository.NameRepository;
+import com.example.namecollection.repository.NameUpdate;
+import com.example.namecollection.search.NameSearchIndex;
 
 @ExtendWith(MockitoExtension.class)
 public class NameServiceTest {
@@ -43,11 +53,21 @@ public class NameServiceTest {
     @Mock
     private NameRepository nameRepository;
 
+    @Mock
+    private NameSearchIndex nameSearchIndex;
+
+    @Mock
+    private NameCountEstimator nameCountEstimator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private NameService nameService;
 
     private Name testName;
     private List<Name> nameList;
+    private List<NameResponseDTO> responseList;
     private String testUuid;
 
     @BeforeEach
@@ -72,21 +92,26 @@ public class NameServiceTest {
         name2.setLastName("Smith");
         name2.setCreatedAt(LocalDateTime.now());
         nameList.add(name2);
+
+        responseList = nameList.stream()
+                .map(name -> new NameResponseDTO(name.getUuid(), name.getFirstName(),
+                        name.getLastName(), name.getCreatedAt(), name.getCreatedAt()))
+                .toList();
     }
 
     @Test
-    void getAllNames_ShouldReturnAllNames() {
+    void streamAllNames_ShouldPassEachProjectedName() {
         // Arrange
-        when(nameRepository.findAll()).thenReturn(nameList);
+        when(nameRepository.streamAllResponses()).thenReturn(responseList.stream());
+        List<NameResponseDTO> streamed = new ArrayList<>();
 
         // Act
-        List<NameResponseDTO> result = nameService.getAllNames();
+        nameService.streamAllNames(streamed::add);
 
         // Assert
-        assertEquals(2, result.size());
-        assertEquals("John", result.get(0).getFirstName());
-        assertEquals("Jane", result.get(1).getFirstName());
-        verify(nameRepository, times(1)).findAll();
+        assertEquals(2, streamed.size());
+        assertEquals("John", streamed.get(0).getFirstName());
+        assertEquals("Jane", streamed.get(1).getFirstName());
     }
 
     @Test
@@ -99,11 +124,9 @@ public class NameServiceTest {
         criteria.setSortBy("firstName");
         criteria.setSortDirection("ASC");
 
-        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "firstName"));
-        Page<Name> page = new PageImpl<>(List.of(testName), pageable, 1);
-
-        when(nameRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-                eq("John"), eq("John"), any(Pageable.class))).thenReturn(page);
+        Sort columnSort = Sort.by(Sort.Direction.ASC, "first_name", "id");
+        when(nameRepository.searchResponsesByTerm("%john%", columnSort, 0, 10))
+                .thenReturn(List.of(responseList.get(0)));
 
         // Act
         PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
@@ -117,6 +140,43 @@ public class NameServiceTest {
         assertEquals(1, result.getTotalPages());
         assertTrue(result.isFirst());
         assertTrue(result.isLast());
+        // A short first page already tells the total, so no count query is needed
+        verify(nameRepository, never()).countByTerm(anyString());
+    }
+
+    @Test
+    void getNames_WithWildcardsInSearchTerm_ShouldEscapeThem() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSearchTerm("50%_Off");
+
+        when(nameRepository.searchResponsesByTerm(eq("%50\\%\\_off%"), any(Sort.class), eq(0L),
+                eq(10))).thenReturn(List.of());
+
+        // Act
+        PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
+
+        // Assert
+        assertEquals(0, result.getTotalElements());
+        verify(nameRepository).searchResponsesByTerm(eq("%50\\%\\_off%"), any(Sort.class),
+                eq(0L), eq(10));
+    }
+
+    @Test
+    void getNames_WithPaddedSearchTerm_ShouldQueryWithTheTermAsTheCacheKeysIt() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSearchTerm("  John ");
+
+        when(nameRepository.searchResponsesByTerm(eq("%john%"), any(Sort.class), eq(0L),
+                eq(10))).thenReturn(List.of(responseList.get(0)));
+
+        // Act
+        PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        assertEquals("john", NamePageKey.of(criteria).searchTerm());
     }
 
     @Test
@@ -130,9 +190,9 @@ public class NameServiceTest {
         criteria.setSortDirection("ASC");
 
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "firstName"));
-        Page<Name> page = new PageImpl<>(nameList, pageable, 2);
+        Page<NameResponseDTO> page = new PageImpl<>(responseList, pageable, 2);
 
-        when(nameRepository.findAll(any(Pageable.class))).thenReturn(page);
+        when(nameRepository.findResponsePage(any(Pageable.class))).thenReturn(page);
 
         // Act
         PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
@@ -145,6 +205,52 @@ public class NameServiceTest {
         assertEquals(1, result.getTotalPages());
     }
 
+    @Test
+    void getNames_WithTotalModeNone_ShouldSkipCount() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setTotalMode("none");
+        criteria.setSize(1);
+
+        Pageable pageable = PageRequest.of(0, 1);
+        when(nameRepository.findResponseSlice(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(responseList.get(0)), pageable, true));
+
+        // Act
+        PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertEquals(-1, result.getTotalElements());
+        assertEquals(-1, result.getTotalPages());
+        assertEquals("none", result.getTotalMode());
+        assertFalse(result.isLast());
+        verify(nameRepository, never()).findResponsePage(any(Pageable.class));
+        verify(nameCountEstimator, never()).estimateTotal(any());
+    }
+
+    @Test
+    void getNames_WithTotalModeEstimated_ShouldUseEstimate() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSearchTerm("jo");
+        criteria.setTotalMode("estimated");
+
+        // One row more than the page size is requested to detect a next page
+        when(nameRepository.searchResponsesByTerm(eq("%jo%"), any(Sort.class), eq(0L), eq(11)))
+                .thenReturn(List.of(responseList.get(0)));
+        when(nameCountEstimator.estimateTotal("%jo%")).thenReturn(25L);
+
+        // Act
+        PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
+
+        // Assert
+        assertEquals(25, result.getTotalElements());
+        assertEquals(3, result.getTotalPages());
+        assertEquals("estimated", result.getTotalMode());
+        verify(nameRepository, never()).countByTerm(anyString());
+    }
+
     @Test
     void saveName_ShouldReturnSavedName() {
         // Arrange
@@ -159,12 +265,30 @@ public class NameServiceTest {
         assertEquals("Doe", result.getLastName());
         assertEquals(testUuid, result.getUuid());
         verify(nameRepository, times(1)).save(testName);
+        verify(eventPublisher).publishEvent(any(NameChangedEvent.class));
+    }
+
+    @Test
+    void saveNames_ShouldSaveAllAndPublishAnEventPerName() {
+        // Arrange
+        when(nameRepository.saveAll(nameList)).thenReturn(nameList);
+
+        // Act
+        List<NameResponseDTO> result = nameService.saveNames(nameList);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("John", result.get(0).getFirstName());
+        assertEquals("Jane", result.get(1).getFirstName());
+        verify(nameRepository, times(1)).saveAll(nameList);
+        verify(eventPublisher, times(2)).publishEvent(any(NameChangedEvent.class));
     }
 
     @Test
     void getNameByUuid_WhenExists_ShouldReturnName() {
         // Arrange
-        when(nameRepository.findByUuid(testUuid)).thenReturn(Optional.of(testName));
+        when(nameRepository.findResponseByUuid(testUuid))
+                .thenReturn(Optional.of(responseList.get(0)));
 
         // Act
         NameResponseDTO result = nameService.getNameByUuid(testUuid);
@@ -173,21 +297,21 @@ public class NameServiceTest {
         assertNotNull(result);
         assertEquals("John", result.getFirstName());
         assertEquals("Doe", result.getLastName());
-        verify(nameRepository, times(1)).findByUuid(testUuid);
+        verify(nameRepository, times(1)).findResponseByUuid(testUuid);
     }
 
     @Test
     void getNameByUuid_WhenNotExists_ShouldReturnNull() {
         // Arrange
         String nonExistentUuid = UUID.randomUUID().toString();
-        when(nameRepository.findByUuid(nonExistentUuid)).thenReturn(Optional.empty());
+        when(nameRepository.findResponseByUuid(nonExistentUuid)).thenReturn(Optional.empty());
 
         // Act
         NameResponseDTO result = nameService.getNameByUuid(nonExistentUuid);
 
         // Assert
         assertNull(result);
-        verify(nameRepository, times(1)).findByUuid(nonExistentUuid);
+        verify(nameRepository, times(1)).findResponseByUuid(nonExistentUuid);
     }
 
     @Test
@@ -195,10 +319,11 @@ public class NameServiceTest {
         // Arrange
         String newFirstName = "Jane";
         String newLastName = "Doe";
+        Name updatedName = new Name(testName.getId(), testUuid, newFirstName, newLastName,
+                testName.getCreatedAt(), LocalDateTime.now());
 
-        when(nameRepository.findByUuid(testUuid)).thenReturn(Optional.of(testName));
-        when(nameRepository.save(any(Name.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(nameRepository.updateByUuidReturning(testUuid, newFirstName, newLastName))
+                .thenReturn(Optional.of(new NameUpdate(updatedName, "John", "Doe")));
 
         // Act
         NameResponseDTO result = nameService.updateName(testUuid, newFirstName, newLastName);
@@ -207,15 +332,17 @@ public class NameServiceTest {
         assertNotNull(result);
         assertEquals(newFirstName, result.getFirstName());
         assertEquals(newLastName, result.getLastName());
-        verify(nameRepository, times(1)).findByUuid(testUuid);
-        verify(nameRepository, times(1)).save(any(Name.class));
+        verify(nameRepository, times(1)).updateByUuidReturning(testUuid, newFirstName, newLastName);
+        verify(nameRepository, never()).save(any(Name.class));
+        verify(eventPublisher).publishEvent(NameChangedEvent.updated(updatedName, "John", "Doe"));
     }
 
     @Test
     void updateName_WhenNotExists_ShouldThrowException() {
         // Arrange
         String nonExistentUuid = UUID.randomUUID().toString();
-        when(nameRepository.findByUuid(nonExistentUuid)).thenReturn(Optional.empty());
+        when(nameRepository.updateByUuidReturning(nonExistentUuid, "New", "Name"))
+                .thenReturn(Optional.empty());
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -223,29 +350,27 @@ public class NameServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Name not found with uuid"));
-        verify(nameRepository, times(1)).findByUuid(nonExistentUuid);
-        verify(nameRepository, never()).save(any(Name.class));
+        verify(eventPublisher, never()).publishEvent(any(NameChangedEvent.class));
     }
 
     @Test
     void deleteNameByUuid_WhenExists_ShouldDeleteName() {
         // Arrange
-        when(nameRepository.findByUuid(testUuid)).thenReturn(Optional.of(testName));
-        doNothing().when(nameRepository).deleteByUuid(testUuid);
+        when(nameRepository.deleteByUuidReturning(testUuid)).thenReturn(Optional.of(testName));
 
         // Act
         nameService.deleteNameByUuid(testUuid);
 
         // Assert
-        verify(nameRepository, times(1)).findByUuid(testUuid);
-        verify(nameRepository, times(1)).deleteByUuid(testUuid);
+        verify(nameRepository, times(1)).deleteByUuidReturning(testUuid);
+        verify(eventPublisher).publishEvent(NameChangedEvent.deleted(testName));
     }
 
     @Test
     void deleteNameByUuid_WhenNotExists_ShouldThrowException() {
         // Arrange
         String nonExistentUuid = UUID.randomUUID().toString();
-        when(nameRepository.findByUuid(nonExistentUuid)).thenReturn(Optional.empty());
+        when(nameRepository.deleteByUuidReturning(nonExistentUuid)).thenReturn(Optional.empty());
 
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -253,8 +378,109 @@ public class NameServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Name not found with uuid"));
-        verify(nameRepository, times(1)).findByUuid(nonExistentUuid);
-        verify(nameRepository, never()).deleteByUuid(anyString());
+        verify(eventPublisher, never()).publishEvent(any(NameChangedEvent.class));
+    }
+
+    @Test
+    void getNames_WhenSearchIndexReady_ShouldFetchPageByIds() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSearchTerm("j");
+        criteria.setSortBy("firstName");
+        criteria.setSortDirection("ASC");
+
+        when(nameSearchIndex.isReady()).thenReturn(true);
+        when(nameSearchIndex.search("j", "firstName", true, 0, 10))
+                .thenReturn(new NameSearchIndex.SearchResult(new long[] {2L, 1L}, 2));
+        when(nameRepository.findResponsesByIds(new long[] {2L, 1L}))
+                .thenReturn(List.of(responseList.get(1), responseList.get(0)));
+
+        // Act
+        PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        assertEquals("Jane", result.getContent().get(0).getFirstName());
+        assertEquals("John", result.getContent().get(1).getFirstName());
+        verify(nameRepository, never()).searchResponsesByTerm(anyString(), any(Sort.class),
+                anyLong(), anyInt());
+    }
+
+    @Test
+    void getNames_InFuzzyMode_ShouldRankCandidatesByEditDistance() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSearchTerm("Jonson");
+        criteria.setMode("fuzzy");
+
+        when(nameRepository.findSearchCandidates(any(), eq("jonson"), eq(true), anyInt()))
+                .thenReturn(candidates(4, response("Mia", "Benson"), response("Ann", "Johnson"),
+                        response("Tom", "Carter"), response("Ann", "Jonson")));
+
+        // Act
+        PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
+
+        // Assert
+        // Carter neither sounds like the term nor is within two edits of it
+        assertEquals(3, result.getTotalElements());
+        assertEquals(List.of("Jonson", "Johnson", "Benson"),
+                result.getContent().stream().map(NameResponseDTO::getLastName).toList());
+        verify(nameSearchIndex, never()).isReady();
+    }
+
+    @Test
+    void getNames_InPhoneticMode_ShouldSkipTheTrigramLookup() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSearchTerm("Jonson");
+        criteria.setMode("phonetic");
+        criteria.setSize(1);
+
+        when(nameRepository.findSearchCandidates(any(), eq("jonson"), eq(false), anyInt()))
+                .thenReturn(candidates(2, response("Ann", "Johnson"), response("Ann", "Jonson")));
+
+        // Act
+        PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertEquals("Jonson", result.getContent().get(0).getLastName());
+    }
+
+    @Test
+    void getNames_InFuzzyModePastTheCandidateLimit_ShouldEstimateTheTotal() {
+        // Arrange
+        NameSearchCriteriaDTO criteria = new NameSearchCriteriaDTO();
+        criteria.setSearchTerm("Jonson");
+        criteria.setMode("fuzzy");
+
+        when(nameRepository.findSearchCandidates(any(), eq("jonson"), eq(true), anyInt()))
+                .thenReturn(candidates(5000, response("Ann", "Johnson"),
+                        response("Tom", "Carter"), response("Ann", "Jonson")));
+
+        // Act
+        PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
+
+        // Assert
+        // The two ranked names plus the 4997 candidates past the limit
+        assertEquals(4999, result.getTotalElements());
+        assertEquals("estimated", result.getTotalMode());
+        assertEquals(List.of("Jonson", "Johnson"),
+                result.getContent().stream().map(NameResponseDTO::getLastName).toList());
+    }
+
+    @Test
+    void countCreatedBetween_OverALongerRangeThanTheBucketsAllow_ShouldThrow() {
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> nameService.countCreatedBetween(
+                from, from.plusDays(32), ChronoUnit.HOURS));
+        assertThrows(IllegalArgumentException.class, () -> nameService.countCreatedBetween(
+                from, from.plusYears(2), ChronoUnit.DAYS));
+        verify(nameRepository, never()).countCreatedBetween(any(), any(), any());
     }
 
     @Test
@@ -268,9 +494,9 @@ public class NameServiceTest {
 
         // The service should default to using "id" as the sort field
         Pageable expectedPageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
-        Page<Name> page = new PageImpl<>(nameList, expectedPageable, 2);
+        Page<NameResponseDTO> page = new PageImpl<>(responseList, expectedPageable, 2);
 
-        when(nameRepository.findAll(any(Pageable.class))).thenReturn(page);
+        when(nameRepository.findResponsePage(expectedPageable)).thenReturn(page);
 
         // Act
         PageDTO<NameResponseDTO> result = nameService.getNames(criteria);
@@ -278,6 +504,15 @@ public class NameServiceTest {
         // Assert
         assertEquals(2, result.getContent().size());
         // Verify the repository was called with the correct parameters
-        verify(nameRepository).findAll(any(Pageable.class));
+        verify(nameRepository).findResponsePage(expectedPageable);
+    }
+
+    private static NameResponseDTO response(String firstName, String lastName) {
+        LocalDateTime now = LocalDateTime.now();
+        return new NameResponseDTO(UUID.randomUUID().toString(), firstName, lastName, now, now);
+    }
+
+    private static NameCandidates candidates(long total, NameResponseDTO... names) {
+        return new NameCandidates(List.of(names), total);
     }
 }
@@ -5,7 +5,6 @@ import com.example.namecollection.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -31,7 +30,9 @@ public class UserServiceTest {
     @Mock
     private Jwt jwt;
 
-    @InjectMocks
+    @Mock
+    private LastLoginUpdater lastLoginUpdater;
+
     private UserService userService;
 
     private final String AUTH0_ID = "auth0|test-user";
@@ -40,6 +41,8 @@ public class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        userService = new UserService(userRepository, lastLoginUpdater, 100);
+
         // Use lenient() to allow unused stubbings
         lenient().when(jwt.getSubject()).thenReturn(AUTH0_ID);
         lenient().when(jwt.getClaim(eq("email"))).thenReturn(EMAIL);
@@ -48,7 +51,7 @@ public class UserServiceTest {
     }
 
     @Test
-    void getOrCreateUser_WhenUserExists_ShouldUpdateLastLogin() {
+    void getOrCreateUser_WhenUserExists_ShouldRecordLastLoginWithoutSaving() {
         // Arrange
         User existingUser = new User();
         existingUser.setAuth0Id(AUTH0_ID);
@@ -57,8 +60,6 @@ public class UserServiceTest {
         existingUser.setLastLogin(LocalDateTime.now().minusDays(1));
 
         when(userRepository.findById(AUTH0_ID)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         User result = userService.getOrCreateUser(authentication);
@@ -70,7 +71,31 @@ public class UserServiceTest {
         assertEquals(NAME, result.getName());
         assertNotNull(result.getLastLogin());
         verify(userRepository, times(1)).findById(AUTH0_ID);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, never()).save(any(User.class));
+        verify(lastLoginUpdater, times(1)).recordLogin(eq(AUTH0_ID), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getOrCreateUser_WhenUserIsKnown_ShouldSkipLookup() {
+        // Arrange
+        User existingUser = new User();
+        existingUser.setAuth0Id(AUTH0_ID);
+        existingUser.setEmail(EMAIL);
+        existingUser.setName(NAME);
+
+        when(userRepository.findById(AUTH0_ID)).thenReturn(Optional.of(existingUser));
+        userService.getOrCreateUser(authentication);
+
+        // Act
+        User result = userService.getOrCreateUser(authentication);
+
+        // Assert
+        assertEquals(AUTH0_ID, result.getAuth0Id());
+        assertEquals(EMAIL, result.getEmail());
+        assertNotNull(result.getLastLogin());
+        verify(userRepository, times(1)).findById(AUTH0_ID);
+        verify(userRepository, never()).save(any(User.class));
+        verify(lastLoginUpdater, times(2)).recordLogin(eq(AUTH0_ID), any(LocalDateTime.class));
     }
 
     @Test
@@ -0,0 +1,117 @@
+package com.example.namecollection.stats;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.namecollection.dto.NameCountDTO;
+import com.example.namecollection.dto.NameStatsDTO;
+import com.example.namecollection.event.NameChangedEvent;
+import com.example.namecollection.model.Name;
+import com.example.namecollection.repository.NameAggregates;
+import com.example.namecollection.repository.NameRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NameStatisticsTest {
+
+    @Mock
+    private NameRepository nameRepository;
+
+    private NameStatistics nameStatistics;
+    private LocalDateTime thisHour;
+
+    @BeforeEach
+    void setUp() {
+        nameStatistics = new NameStatistics(nameRepository, true);
+        thisHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void snapshot_AfterReconcile_ShouldReportTheDatabaseCounts() {
+        // Arrange
+        when(nameRepository.aggregateCounts()).thenReturn(aggregates(Map.of("John", 2L,
+                "Jane", 1L), Map.of("Doe", 2L, "Smith", 1L), Map.of(thisHour, 2L,
+                        thisHour.minusDays(1), 1L)));
+
+        // Act
+        nameStatistics.reconcile();
+        NameStatsDTO stats = nameStatistics.snapshot(1, 2, 3);
+
+        // Assert
+        assertEquals(3, stats.getTotal());
+        assertEquals(2, stats.getDistinctFirstNames());
+        assertEquals(List.of(new NameCountDTO("John", 2)), stats.getTopFirstNames());
+        assertEquals(List.of(new NameCountDTO("Doe", 2)), stats.getTopLastNames());
+        // Oldest bucket first, ending with the current day and hour
+        assertEquals(2, stats.getCreatedPerDay().size());
+        assertEquals(1, stats.getCreatedPerDay().get(0).getCount());
+        assertEquals(2, stats.getCreatedPerDay().get(1).getCount());
+        assertEquals(3, stats.getCreatedPerHour().size());
+        assertEquals(thisHour, stats.getCreatedPerHour().get(2).getStart());
+        assertEquals(2, stats.getCreatedPerHour().get(2).getCount());
+        assertNotNull(stats.getReconciledAt());
+    }
+
+    @Test
+    void snapshot_ShouldFollowWritesWithoutQueryingTheDatabase() {
+        // Arrange
+        when(nameRepository.aggregateCounts())
+                .thenReturn(aggregates(Map.of(), Map.of(), Map.of()));
+        nameStatistics.reconcile();
+
+        // Act
+        nameStatistics.onNameChanged(NameChangedEvent.created(name("John", "Doe")));
+        nameStatistics.onNameChanged(NameChangedEvent.created(name("Jane", "Doe")));
+        nameStatistics.onNameChanged(
+                NameChangedEvent.updated(name("Joan", "Doe"), "Jane", "Doe"));
+        nameStatistics.onNameChanged(NameChangedEvent.deleted(name("John", "Doe")));
+        NameStatsDTO stats = nameStatistics.snapshot(10, 1, 1);
+
+        // Assert
+        assertEquals(1, stats.getTotal());
+        assertEquals(List.of(new NameCountDTO("Joan", 1)), stats.getTopFirstNames());
+        assertEquals(List.of(new NameCountDTO("Doe", 1)), stats.getTopLastNames());
+        assertEquals(1, stats.getCreatedPerHour().get(0).getCount());
+    }
+
+    @Test
+    void reconcile_ShouldKeepWritesCommittedWhileCounting() {
+        // Arrange
+        when(nameRepository.aggregateCounts()).thenAnswer(invocation -> {
+            // Committed after the count's snapshot, so the counts don't include it
+            nameStatistics.onNameChanged(NameChangedEvent.created(name("Ann", "Lee")));
+            return aggregates(Map.of("John", 1L), Map.of("Doe", 1L), Map.of(thisHour, 1L));
+        });
+
+        // Act
+        nameStatistics.reconcile();
+        NameStatsDTO stats = nameStatistics.snapshot(10, 1, 1);
+
+        // Assert
+        assertEquals(2, stats.getTotal());
+        assertEquals(2, stats.getDistinctLastNames());
+        assertEquals(2, stats.getCreatedPerHour().get(0).getCount());
+    }
+
+    private static NameAggregates aggregates(Map<String, Long> firstNames,
+            Map<String, Long> lastNames, Map<LocalDateTime, Long> createdPerHour) {
+        return new NameAggregates(new HashMap<>(firstNames), new HashMap<>(lastNames),
+                new HashMap<>(createdPerHour));
+    }
+
+    private Name name(String firstName, String lastName) {
+        return new Name(1L, "uuid", firstName, lastName, thisHour.plusMinutes(1), thisHour);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.namecollection.util;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.example.namecollection.config.CustomJwtAuthenticationConverter;
+import com.example.namecollection.security.PermissionAuthenticationToken;
+
+public class PermissionUtilTest {
+
+    private final PermissionUtil permissionUtil = new PermissionUtil();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void checks_ShouldUseCompiledPermissionsFromConvertedTokens() {
+        // Arrange
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user-1")
+                .claim("scope", "openid profile")
+                .claim("permissions", List.of("read:names", "create:names"))
+                .claim("https://name-collection-app/roles", List.of("Editor")).build();
+        Authentication authentication = new CustomJwtAuthenticationConverter().convert(jwt);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        // Act & Assert
+        assertInstanceOf(PermissionAuthenticationToken.class, authentication);
+        assertTrue(permissionUtil.hasPermission("read:names"));
+        assertTrue(permissionUtil.hasPermission("openid"));
+        assertFalse(permissionUtil.hasPermission("delete:names"));
+        assertTrue(permissionUtil.hasAnyPermission("delete:names", "create:names"));
+        assertFalse(permissionUtil.hasAllPermissions("read:names", "update:names"));
+        assertTrue(permissionUtil.hasRole("editor"));
+        assertFalse(permissionUtil.hasRole("admin"));
+        assertEquals(List.of("EDITOR"), List.copyOf(permissionUtil.getUserRoles()));
+        assertEquals(4, permissionUtil.getUserPermissions().size());
+    }
+
+    @Test
+    void checks_ShouldFallBackToAuthoritiesForOtherAuthentications() {
+        // Arrange
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "RS256").subject("user-1").build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt,
+                AuthorityUtils.createAuthorityList("SCOPE_update:names", "ROLE_CUSTOM")));
+
+        // Act & Assert
+        assertTrue(permissionUtil.hasPermission("update:names"));
+        assertFalse(permissionUtil.hasPermission("read:names"));
+        assertTrue(permissionUtil.hasRole("custom"));
+        assertEquals(List.of("update:names"), List.copyOf(permissionUtil.getUserPermissions()));
+    }
+
+    @Test
+    void checks_ShouldDenyWithoutAuthentication() {
+        assertFalse(permissionUtil.hasPermission("read:names"));
+        assertFalse(permissionUtil.hasAllPermissions());
+        assertTrue(permissionUtil.getUserPermissions().isEmpty());
+    }
+}